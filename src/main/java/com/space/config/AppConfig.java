@@ -1,9 +1,14 @@
 package com.space.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
@@ -25,8 +30,12 @@ import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.
 @EnableTransactionManagement
 @ComponentScan("com.space.service")
 @EnableJpaRepositories(basePackages = "com.space.repository")
+@PropertySource(value = "classpath:cosmoport.properties", ignoreResourceNotFound = true)
 public class AppConfig {
 
+    @Autowired
+    private Environment env;
+
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
@@ -43,12 +52,38 @@ public class AppConfig {
     @Profile("prod")
     @Bean
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/cosmoport?serverTimezone=UTC");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+        String url = env.getProperty("cosmoport.datasource.url", "jdbc:mysql://localhost:3306/cosmoport?serverTimezone=UTC&rewriteBatchedStatements=true&useCursorFetch=true");
+        String username = env.getProperty("cosmoport.datasource.username", "root");
+        String password = env.getProperty("cosmoport.datasource.password", "root");
+        if (!env.getProperty("cosmoport.datasource.pool.enabled", Boolean.class, true)) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource();
+            dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
+            dataSource.setUrl(url);
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            return dataSource;
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("cosmoport");
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMinimumIdle(env.getProperty("cosmoport.datasource.pool.min-idle", Integer.class, 2));
+        config.setMaximumPoolSize(env.getProperty("cosmoport.datasource.pool.max-size", Integer.class, 10));
+        config.setConnectionTimeout(env.getProperty("cosmoport.datasource.pool.connection-timeout-ms", Long.class, 30000L));
+        config.setIdleTimeout(env.getProperty("cosmoport.datasource.pool.idle-timeout-ms", Long.class, 600000L));
+        config.setMaxLifetime(env.getProperty("cosmoport.datasource.pool.max-lifetime-ms", Long.class, 1800000L));
+        // connections idle for more than 500ms are checked with Connection.isValid before being handed out
+        config.setValidationTimeout(env.getProperty("cosmoport.datasource.pool.validation-timeout-ms", Long.class, 5000L));
+        // client-side statement cache of Connector/J, kept per physical connection
+        config.addDataSourceProperty("cachePrepStmts", env.getProperty("cosmoport.datasource.pool.cache-prepared-statements", "true"));
+        config.addDataSourceProperty("prepStmtCacheSize", env.getProperty("cosmoport.datasource.pool.prepared-statement-cache-size", "250"));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", env.getProperty("cosmoport.datasource.pool.prepared-statement-cache-sql-limit", "2048"));
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return new HikariDataSource(config);
     }
 
     @Profile("dev")
@@ -64,6 +99,11 @@ public class AppConfig {
                 .build();
     }
 
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
     @Bean
     public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
@@ -80,6 +120,9 @@ public class AppConfig {
     private Properties additionalProperties() {
         Properties properties = new Properties();
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        properties.setProperty("hibernate.jdbc.batch_size", env.getProperty("cosmoport.jdbc.batch-size", "50"));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.session_factory.statement_inspector", ShipStatementInspector.class.getName());
 
         return properties;
     }
@@ -0,0 +1,59 @@
+package com.space.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects connection pool gauges and counters reported by HikariCP.
+ * Without a pooled DataSource (the dev profile) every value stays zero.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                created.increment();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                requests.increment();
+                waitNanos.add(elapsedAcquiredNanos);
+                maxWaitNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public PoolStatistics getStatistics() {
+        PoolStats stats = poolStats;
+        long requested = requests.sum();
+        double averageWaitMillis = requested == 0 ? 0 : waitNanos.sum() / (double) requested / TimeUnit.MILLISECONDS.toNanos(1);
+        double maxWaitMillis = maxWaitNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        if (stats == null) {
+            return new PoolStatistics(false, 0, 0, 0, 0, 0, requested, averageWaitMillis, maxWaitMillis, timeouts.sum(), created.sum());
+        }
+        return new PoolStatistics(true, stats.getActiveConnections(), stats.getIdleConnections(), stats.getTotalConnections(),
+                stats.getMaxConnections(), stats.getPendingThreads(), requested, averageWaitMillis, maxWaitMillis,
+                timeouts.sum(), created.sum());
+    }
+}
@@ -0,0 +1,77 @@
+package com.space.config;
+
+/**
+ * Point-in-time view of the JDBC connection pool.
+ */
+public class PoolStatistics {
+    private final boolean pooled;
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final int pending;
+    private final long requests;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+    private final long timeouts;
+    private final long connectionsCreated;
+
+    public PoolStatistics(boolean pooled, int active, int idle, int total, int maxSize, int pending, long requests,
+                          double averageWaitMillis, double maxWaitMillis, long timeouts, long connectionsCreated) {
+        this.pooled = pooled;
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.pending = pending;
+        this.requests = requests;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.timeouts = timeouts;
+        this.connectionsCreated = connectionsCreated;
+    }
+
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+}
@@ -0,0 +1,17 @@
+package com.space.config;
+
+import com.space.service.ShipTrace;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands every statement Hibernate prepares to the trace of the current request, for the debug block
+ * and the slow request log. The SQL itself is left as it is.
+ */
+public class ShipStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        ShipTrace.statement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,47 @@
+package com.space.config;
+
+import com.space.service.ShipTrace;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * The JSON converter of WebConfig. For a request with a Server-Timing header it serializes into a buffer
+ * first, so that the time Jackson takes can still go into the header, which has to precede the body.
+ * Other requests are written straight through, timed when they are traced.
+ */
+public class TracingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ShipTrace trace = ShipTrace.current();
+        if (trace == null || !trace.isServerTiming()) {
+            long begin = ShipTrace.begin();
+            super.writeInternal(object, type, outputMessage);
+            ShipTrace.end(ShipTrace.Phase.SERIALIZE, begin);
+            return;
+        }
+        long begin = ShipTrace.begin();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        ShipTrace.end(ShipTrace.Phase.SERIALIZE, begin);
+        outputMessage.getHeaders().set(ShipTrace.HEADER, trace.serverTiming());
+        outputMessage.getHeaders().setContentLength(buffer.size());
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,101 @@
+package com.space.controller;
+
+import com.space.config.ConnectionPoolMetrics;
+import com.space.config.PoolStatistics;
+import com.space.service.CacheStatistics;
+import com.space.service.ShipImportStatus;
+import com.space.service.ShipImporter;
+import com.space.service.ShipEntityCache;
+import com.space.service.ShipQueryCache;
+import com.space.service.ShipRatingJobStatus;
+import com.space.service.ShipRatingRecomputer;
+import com.space.service.ShipSlowLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/rest/admin")
+public class AdminController {
+
+    @Autowired
+    private ShipQueryCache shipQueryCache;
+    @Autowired
+    private ShipEntityCache shipEntityCache;
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+    @Autowired
+    private ShipImporter shipImporter;
+    @Autowired
+    private ShipRatingRecomputer shipRatingRecomputer;
+    @Autowired
+    private ShipSlowLog shipSlowLog;
+
+    @GetMapping("/caches")
+    public Map<String, CacheStatistics> getCacheStatistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("query", shipQueryCache.getStatistics());
+        statistics.put("entity", shipEntityCache.getStatistics());
+        return statistics;
+    }
+
+    @GetMapping("/pool")
+    public PoolStatistics getPoolStatistics() {
+        return connectionPoolMetrics.getStatistics();
+    }
+
+    /**
+     * Starts importing a file of the server's import directory, {@code path} being relative to it;
+     * repeating the call resumes it.
+     */
+    @PostMapping("/imports")
+    public ShipImportStatus startImport(@RequestParam String path,
+                                        @RequestParam(required = false, defaultValue = "NDJSON") ShipExportFormat format) {
+        return shipImporter.start(path, format);
+    }
+
+    @GetMapping("/imports")
+    public List<ShipImportStatus> getImports() {
+        return shipImporter.getStatuses();
+    }
+
+    /**
+     * Rates ships against {@code referenceYear} from now on and recomputes the stored ratings in the
+     * background; repeating the call after a failure resumes the run.
+     */
+    @PostMapping("/ratings")
+    public ShipRatingJobStatus recomputeRatings(@RequestParam Integer referenceYear) {
+        return shipRatingRecomputer.start(referenceYear);
+    }
+
+    @GetMapping("/ratings")
+    public ShipRatingJobStatus getRatingRecompute() {
+        return shipRatingRecomputer.getStatus();
+    }
+
+    /**
+     * The last requests over the slow log threshold, newest first, with their filters, SQL, row counts
+     * and phase timings.
+     */
+    @GetMapping("/slow-requests")
+    public Map<String, Object> getSlowRequests() {
+        Map<String, Object> slowRequests = new LinkedHashMap<>();
+        slowRequests.put("thresholdMillis", shipSlowLog.getThresholdMillis());
+        slowRequests.put("recorded", shipSlowLog.getRecorded());
+        slowRequests.put("requests", shipSlowLog.getEntries());
+        return slowRequests;
+    }
+
+    @DeleteMapping("/slow-requests")
+    public void clearSlowRequests() {
+        shipSlowLog.clear();
+    }
+}
@@ -4,19 +4,30 @@ package com.space.controller;
 import com.space.exception.ShipBadRequestException;
 import com.space.exception.ShipNotFoundItemException;
 import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipPage;
+import com.space.model.ShipSuggestion;
 import com.space.model.ShipType;
+import com.space.service.ShipMetrics;
 import com.space.service.ShipService;
+import com.space.service.ShipTrace;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/rest")
 public class MyRestController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ShipService shipService;
+    @Autowired
+    private ShipMetrics shipMetrics;
 
     @GetMapping("/ships")
     public List<Ship> findAllShips(
@@ -34,11 +45,47 @@ public class MyRestController {
             @RequestParam(required = false) Double maxRating,
             @RequestParam(required = false) ShipOrder order,
             @RequestParam(required = false, defaultValue = "0") Integer pageNumber,
-            @RequestParam(required = false, defaultValue = "3") Integer pageSize
+            @RequestParam(required = false, defaultValue = "3") Integer pageSize,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response
+    ) {
+        ShipPage page = shipService.findAllShips(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize,
+                maxCrewSize, minRating, maxRating, order, pageNumber, pageSize, cursor);
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getShips();
+    }
+
+    @GetMapping("/ships/page")
+    public ShipPage findShipsPage(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String planet,
+            @RequestParam(required = false) ShipType shipType,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Boolean isUsed,
+            @RequestParam(required = false) Double minSpeed,
+            @RequestParam(required = false) Double maxSpeed,
+            @RequestParam(required = false) Integer minCrewSize,
+            @RequestParam(required = false) Integer maxCrewSize,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Double maxRating,
+            @RequestParam(required = false) ShipOrder order,
+            @RequestParam(required = false, defaultValue = "0") Integer pageNumber,
+            @RequestParam(required = false, defaultValue = "3") Integer pageSize,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean debug
     ) {
-        List<Ship> ships =  shipService.findAllShips(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize,
-                maxCrewSize, minRating, maxRating, order, pageNumber, pageSize);
-        return ships;
+        ShipPage page = shipService.findShipsPage(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize,
+                maxCrewSize, minRating, maxRating, order, pageNumber, pageSize, cursor);
+        ShipTrace trace = ShipTrace.current();
+        if (debug && trace != null) {
+            // the page may be shared through the query cache
+            page = new ShipPage(page.getShips(), page.getCount(), page.getNextCursor());
+            page.setDebug(trace.toDebug());
+        }
+        return page;
     }
 
     @GetMapping("/ships/count")
@@ -62,6 +109,42 @@ public class MyRestController {
         return shipsNumber;
     }
 
+    @GetMapping("/ships/export")
+    public void exportShips(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String planet,
+            @RequestParam(required = false) ShipType shipType,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Boolean isUsed,
+            @RequestParam(required = false) Double minSpeed,
+            @RequestParam(required = false) Double maxSpeed,
+            @RequestParam(required = false) Integer minCrewSize,
+            @RequestParam(required = false) Integer maxCrewSize,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Double maxRating,
+            @RequestParam(required = false) ShipOrder order,
+            @RequestParam(required = false, defaultValue = "NDJSON") ShipExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"ships." + format.getExtension() + "\"");
+        try (ShipExportWriter writer = new ShipExportWriter(format, response.getWriter())) {
+            shipService.exportShips(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize,
+                    maxCrewSize, minRating, maxRating, order, writer);
+        }
+    }
+
+    @GetMapping("/ships/suggest")
+    public List<ShipSuggestion> suggest(
+            @RequestParam String field,
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(required = false, defaultValue = "10") Integer limit
+    ) {
+        return shipService.suggest(field, prefix, limit);
+    }
+
     @GetMapping("/ships/{id}")
     public Ship getShipByID(@PathVariable Long id) {
         Ship ship =  shipService.findShipByID(id);
@@ -80,6 +163,11 @@ public class MyRestController {
         return createdShip;
     }
 
+    @PostMapping("/ships/batch")
+    public ShipBatchResult createShips(@RequestBody List<Ship> ships) {
+        return shipService.createShips(ships);
+    }
+
     @DeleteMapping("/ships/{id}")
     public void deleteShip(@PathVariable Long id) {
         shipService.deleteShip(id);
@@ -94,6 +182,16 @@ public class MyRestController {
         return shipService.updateShip(id, ship);
     }
 
+    /**
+     * Latency histograms and request counts in the Prometheus text exposition format.
+     */
+    @GetMapping("/metrics")
+    public void getMetrics(HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain; version=0.0.4");
+        response.setCharacterEncoding("UTF-8");
+        shipMetrics.writePrometheus(response.getWriter());
+    }
+
     private Boolean isIdValid(Long id) {
         return id != null &&
                 id == Math.floor(id) &&
@@ -0,0 +1,22 @@
+package com.space.controller;
+
+public enum ShipExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"), // default
+    CSV("text/csv", "csv");
+
+    private String contentType;
+    private String extension;
+
+    ShipExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
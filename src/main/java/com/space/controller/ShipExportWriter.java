@@ -0,0 +1,102 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.model.Ship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Writes ships one by one as NDJSON lines or CSV rows, so an export never holds more than one ship.
+ */
+public class ShipExportWriter implements Consumer<Ship>, Closeable {
+
+    // the same field-based view as the message converter in WebConfig
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    private static final String CSV_HEADER = "id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating";
+
+    private final ShipExportFormat format;
+    private final Writer out;
+    private final JsonGenerator generator;
+
+    public ShipExportWriter(ShipExportFormat format, Writer out) throws IOException {
+        this.format = format;
+        this.out = out;
+        if (format == ShipExportFormat.NDJSON) {
+            generator = MAPPER.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+        } else {
+            generator = null;
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+    }
+
+    @Override
+    public void accept(Ship ship) {
+        try {
+            if (format == ShipExportFormat.NDJSON) {
+                generator.writeObject(ship);
+                generator.writeRaw('\n');
+            } else {
+                writeCsv(ship);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        } else {
+            out.flush();
+        }
+    }
+
+    private void writeCsv(Ship ship) throws IOException {
+        out.write(String.valueOf(ship.getId()));
+        out.write(',');
+        writeCsvText(ship.getName());
+        out.write(',');
+        writeCsvText(ship.getPlanet());
+        out.write(',');
+        out.write(ship.getShipType() == null ? "" : ship.getShipType().name());
+        out.write(',');
+        out.write(ship.getProdDate() == null ? "" : String.valueOf(ship.getProdDate().getTime()));
+        out.write(',');
+        out.write(String.valueOf(ship.getUsed()));
+        out.write(',');
+        out.write(String.valueOf(ship.getSpeed()));
+        out.write(',');
+        out.write(String.valueOf(ship.getCrewSize()));
+        out.write(',');
+        out.write(String.valueOf(ship.getRating()));
+        out.write('\n');
+    }
+
+    /**
+     * RFC 4180 quoting: fields with a comma, quote or line break are enclosed in quotes, quotes doubled.
+     */
+    private void writeCsvText(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,43 @@
+package com.space.controller;
+
+import com.space.service.ShipMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Times every handled request, serialization of the response included, into {@link ShipMetrics}
+ * under its handler mapping pattern.
+ */
+@Component
+public class ShipMetricsInterceptor implements HandlerInterceptor {
+
+    // the start of the request on this thread, in a holder so that recording allocates nothing
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Autowired
+    private ShipMetrics shipMetrics;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        START.get()[0] = System.nanoTime();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long nanos = System.nanoTime() - START.get()[0];
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (method != null && pattern instanceof String) {
+            // an exception no resolver handled still leaves the status at 200 here
+            int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+            shipMetrics.recordRequest(method, (String) pattern, status, nanos);
+        }
+    }
+}
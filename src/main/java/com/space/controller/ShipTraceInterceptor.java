@@ -0,0 +1,63 @@
+package com.space.controller;
+
+import com.space.service.ShipSlowLog;
+import com.space.service.ShipSlowRequest;
+import com.space.service.ShipTrace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Traces every request when {@code cosmoport.server-timing.enabled} is set, and any request with
+ * {@code debug=true}. JSON responses get their Server-Timing header from the converter; the others
+ * get it here, unless their body is already on its way. While the slow request log is on, every
+ * request is traced for it as well, without the header, and the slow ones are recorded at completion.
+ */
+@Component
+public class ShipTraceInterceptor implements HandlerInterceptor {
+
+    static final String DEBUG_PARAMETER = "debug";
+
+    @Value("${cosmoport.server-timing.enabled:false}")
+    private boolean enabled;
+    @Autowired
+    private ShipSlowLog shipSlowLog;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean serverTiming = enabled || "true".equals(request.getParameter(DEBUG_PARAMETER));
+        if (serverTiming || shipSlowLog.isEnabled()) {
+            ShipTrace.start(serverTiming);
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        ShipTrace trace = ShipTrace.current();
+        if (trace != null && trace.isServerTiming() && !response.isCommitted() && !response.containsHeader(ShipTrace.HEADER)) {
+            response.setHeader(ShipTrace.HEADER, trace.serverTiming());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShipTrace trace = ShipTrace.current();
+        if (trace != null) {
+            double elapsedMillis = trace.elapsedMillis();
+            if (shipSlowLog.isSlow(elapsedMillis)) {
+                String uri = request.getQueryString() == null
+                        ? request.getRequestURI()
+                        : request.getRequestURI() + "?" + request.getQueryString();
+                shipSlowLog.record(new ShipSlowRequest(System.currentTimeMillis(), request.getMethod(), uri,
+                        response.getStatus(), elapsedMillis, trace.phaseMillis(), trace.getQueries(), trace.getSql()));
+            }
+        }
+        ShipTrace.stop();
+    }
+}
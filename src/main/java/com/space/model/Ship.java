@@ -6,8 +6,8 @@ import java.util.Date;
 @Entity
 @Table(name = "ship")
 public class Ship {
+    // assigned from ship_seq blocks by ShipIdAllocator; AUTO_INCREMENT would rule out insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String name;
     private String planet;
@@ -32,6 +32,28 @@ public class Ship {
         this.crewSize = crewSize;
     }
 
+    /**
+     * All columns, in table order; used by the constructor projections of ShipRepositoryCustom.
+     */
+    public Ship(Long id, String name, String planet, ShipType shipType, Date prodDate, Boolean isUsed, Double speed,
+                Integer crewSize, Double rating) {
+        this(name, planet, shipType, prodDate, isUsed, speed, crewSize);
+        this.id = id;
+        this.rating = rating;
+    }
+
+    public Ship(Ship other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.planet = other.planet;
+        this.shipType = other.shipType;
+        this.prodDate = other.prodDate;
+        this.isUsed = other.isUsed;
+        this.speed = other.speed;
+        this.crewSize = other.crewSize;
+        this.rating = other.rating;
+    }
+
     public Long getId() {
         return id;
     }
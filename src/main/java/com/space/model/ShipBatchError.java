@@ -0,0 +1,33 @@
+package com.space.model;
+
+/**
+ * Why the item at {@code index} of a bulk create request was not inserted.
+ */
+public class ShipBatchError {
+    private Integer index;
+    private String message;
+
+    public ShipBatchError() {
+    }
+
+    public ShipBatchError(Integer index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,35 @@
+package com.space.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create: the ships that were inserted and the items that were rejected.
+ */
+public class ShipBatchResult {
+    private List<Ship> created;
+    private List<ShipBatchError> errors;
+
+    public ShipBatchResult() {
+    }
+
+    public ShipBatchResult(List<Ship> created, List<ShipBatchError> errors) {
+        this.created = created;
+        this.errors = errors;
+    }
+
+    public List<Ship> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<Ship> created) {
+        this.created = created;
+    }
+
+    public List<ShipBatchError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ShipBatchError> errors) {
+        this.errors = errors;
+    }
+}
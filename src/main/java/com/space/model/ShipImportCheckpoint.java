@@ -0,0 +1,71 @@
+package com.space.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * How far the import of a file has got. It is written in the same transaction as the ships, so after a
+ * failure the import resumes exactly behind the last committed row.
+ */
+@Entity
+@Table(name = "ship_import")
+public class ShipImportCheckpoint {
+    @Id
+    private String source;
+    private Long bytesRead;
+    private Long linesRead;
+    private Long imported;
+    private Long rejected;
+
+    public ShipImportCheckpoint() {
+    }
+
+    public ShipImportCheckpoint(String source, Long bytesRead, Long linesRead, Long imported, Long rejected) {
+        this.source = source;
+        this.bytesRead = bytesRead;
+        this.linesRead = linesRead;
+        this.imported = imported;
+        this.rejected = rejected;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public Long getBytesRead() {
+        return bytesRead;
+    }
+
+    public void setBytesRead(Long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    public Long getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(Long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public Long getImported() {
+        return imported;
+    }
+
+    public void setImported(Long imported) {
+        this.imported = imported;
+    }
+
+    public Long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Long rejected) {
+        this.rejected = rejected;
+    }
+}
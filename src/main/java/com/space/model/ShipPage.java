@@ -0,0 +1,61 @@
+package com.space.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of ships together with the total number of ships matching the same filters
+ * and, for a full page, the cursor of the next one. With {@code debug=true} it also carries the
+ * request's phase timings. The count is {@code null} for {@code /rest/ships}, which only needs the
+ * ships and the cursor.
+ */
+public class ShipPage {
+    private List<Ship> ships;
+    private Integer count;
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> debug;
+
+    public ShipPage() {
+    }
+
+    public ShipPage(List<Ship> ships, Integer count, String nextCursor) {
+        this.ships = ships;
+        this.count = count;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Ship> getShips() {
+        return ships;
+    }
+
+    public void setShips(List<Ship> ships) {
+        this.ships = ships;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Map<String, Object> getDebug() {
+        return debug;
+    }
+
+    public void setDebug(Map<String, Object> debug) {
+        this.debug = debug;
+    }
+}
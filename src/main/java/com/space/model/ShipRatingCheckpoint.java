@@ -0,0 +1,73 @@
+package com.space.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * How far the recompute of all ratings against one reference year has got: every ship with an id below
+ * {@code nextId} is done. Ships above {@code lastId} were created after the run started and are
+ * already rated against the new year.
+ */
+@Entity
+@Table(name = "ship_rating_job")
+public class ShipRatingCheckpoint {
+    @Id
+    private Integer referenceYear;
+    private Long nextId;
+    private Long lastId;
+    private Long updated;
+    // epoch millis, null while the run is unfinished
+    private Long completedAt;
+
+    public ShipRatingCheckpoint() {
+    }
+
+    public ShipRatingCheckpoint(Integer referenceYear, Long nextId, Long lastId, Long updated, Long completedAt) {
+        this.referenceYear = referenceYear;
+        this.nextId = nextId;
+        this.lastId = lastId;
+        this.updated = updated;
+        this.completedAt = completedAt;
+    }
+
+    public Integer getReferenceYear() {
+        return referenceYear;
+    }
+
+    public void setReferenceYear(Integer referenceYear) {
+        this.referenceYear = referenceYear;
+    }
+
+    public Long getNextId() {
+        return nextId;
+    }
+
+    public void setNextId(Long nextId) {
+        this.nextId = nextId;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+
+    public Long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Long updated) {
+        this.updated = updated;
+    }
+
+    public Long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Long completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.space.model;
+
+/**
+ * A name or planet completion and the number of ships that carry it.
+ */
+public class ShipSuggestion {
+    private String value;
+    private Integer count;
+
+    public ShipSuggestion() {
+    }
+
+    public ShipSuggestion(String value, Integer count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,75 @@
+package com.space.repository;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last ship of a page for keyset pagination: the sort key of the requested
+ * {@link ShipOrder} and the id that breaks ties. Clients only see the opaque {@link #encode()} form.
+ */
+public class ShipCursor {
+    private final ShipOrder order;
+    private final Number key;
+    private final long id;
+
+    private ShipCursor(ShipOrder order, Number key, long id) {
+        this.order = order;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static ShipCursor after(ShipOrder order, Ship ship) {
+        order = order == null ? ShipOrder.ID : order;
+        switch (order) {
+            case SPEED:
+                return new ShipCursor(order, ship.getSpeed(), ship.getId());
+            case DATE:
+                return new ShipCursor(order, ship.getProdDate().getTime(), ship.getId());
+            case RATING:
+                return new ShipCursor(order, ship.getRating(), ship.getId());
+            default:
+                return new ShipCursor(ShipOrder.ID, ship.getId(), ship.getId());
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static ShipCursor decode(String value) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor " + value, e);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor " + value);
+        }
+        ShipOrder order = ShipOrder.valueOf(parts[0]);
+        long id = Long.parseLong(parts[2]);
+        Number key = order == ShipOrder.SPEED || order == ShipOrder.RATING
+                ? (Number) Double.parseDouble(parts[1])
+                : (Number) Long.parseLong(parts[1]);
+        return new ShipCursor(order, key, id);
+    }
+
+    public String encode() {
+        String raw = order.name() + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ShipOrder getOrder() {
+        return order;
+    }
+
+    public Number getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,296 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The filter parameters accepted by {@code /rest/ships} and {@code /rest/ships/count}.
+ * A {@code null} parameter means "no restriction".
+ */
+public class ShipFilter {
+    /**
+     * The parameter names in the bit order of {@link #shape()}.
+     */
+    public static final List<String> PARAMETERS = Collections.unmodifiableList(Arrays.asList("name", "planet", "shipType",
+            "after", "before", "isUsed", "minSpeed", "maxSpeed", "minCrewSize", "maxCrewSize", "minRating", "maxRating"));
+
+    private final String name;
+    private final String planet;
+    private final ShipType shipType;
+    private final Long after;
+    private final Long before;
+    private final Boolean isUsed;
+    private final Double minSpeed;
+    private final Double maxSpeed;
+    private final Integer minCrewSize;
+    private final Integer maxCrewSize;
+    private final Double minRating;
+    private final Double maxRating;
+
+    public ShipFilter(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed,
+                      Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating) {
+        this.name = name;
+        this.planet = planet;
+        this.shipType = shipType;
+        this.after = after;
+        this.before = before;
+        this.isUsed = isUsed;
+        this.minSpeed = minSpeed;
+        this.maxSpeed = maxSpeed;
+        this.minCrewSize = minCrewSize;
+        this.maxCrewSize = maxCrewSize;
+        this.minRating = minRating;
+        this.maxRating = maxRating;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPlanet() {
+        return planet;
+    }
+
+    public ShipType getShipType() {
+        return shipType;
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public Long getBefore() {
+        return before;
+    }
+
+    public Boolean getUsed() {
+        return isUsed;
+    }
+
+    public Double getMinSpeed() {
+        return minSpeed;
+    }
+
+    public Double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public Integer getMinCrewSize() {
+        return minCrewSize;
+    }
+
+    public Integer getMaxCrewSize() {
+        return maxCrewSize;
+    }
+
+    public Double getMinRating() {
+        return minRating;
+    }
+
+    public Double getMaxRating() {
+        return maxRating;
+    }
+
+    /**
+     * Which parameters are given, as a bit per entry of {@link #PARAMETERS}: filters with the same shape
+     * differ only in their values and run the same query plan.
+     */
+    public int shape() {
+        return (name != null ? 1 : 0)
+                | (planet != null ? 1 << 1 : 0)
+                | (shipType != null ? 1 << 2 : 0)
+                | (after != null ? 1 << 3 : 0)
+                | (before != null ? 1 << 4 : 0)
+                | (isUsed != null ? 1 << 5 : 0)
+                | (minSpeed != null ? 1 << 6 : 0)
+                | (maxSpeed != null ? 1 << 7 : 0)
+                | (minCrewSize != null ? 1 << 8 : 0)
+                | (maxCrewSize != null ? 1 << 9 : 0)
+                | (minRating != null ? 1 << 10 : 0)
+                | (maxRating != null ? 1 << 11 : 0);
+    }
+
+    /**
+     * The given parameters of a {@link #shape()} joined by '+', or "none".
+     */
+    public static String describeShape(int shape) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < PARAMETERS.size(); i++) {
+            if ((shape & 1 << i) != 0) {
+                if (description.length() > 0) {
+                    description.append('+');
+                }
+                description.append(PARAMETERS.get(i));
+            }
+        }
+        return description.length() == 0 ? "none" : description.toString();
+    }
+
+    /**
+     * The given parameters by name, in the order of {@link #PARAMETERS}.
+     */
+    public Map<String, Object> toParameters() {
+        Object[] values = {name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating};
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                parameters.put(PARAMETERS.get(i), values[i]);
+            }
+        }
+        return parameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ShipFilter that = (ShipFilter) o;
+        return Objects.equals(name, that.name) &&
+                Objects.equals(planet, that.planet) &&
+                shipType == that.shipType &&
+                Objects.equals(after, that.after) &&
+                Objects.equals(before, that.before) &&
+                Objects.equals(isUsed, that.isUsed) &&
+                Objects.equals(minSpeed, that.minSpeed) &&
+                Objects.equals(maxSpeed, that.maxSpeed) &&
+                Objects.equals(minCrewSize, that.minCrewSize) &&
+                Objects.equals(maxCrewSize, that.maxCrewSize) &&
+                Objects.equals(minRating, that.minRating) &&
+                Objects.equals(maxRating, that.maxRating);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+    }
+
+    @Override
+    public String toString() {
+        return "ShipFilter{" +
+                "name='" + name + '\'' +
+                ", planet='" + planet + '\'' +
+                ", shipType=" + shipType +
+                ", after=" + after +
+                ", before=" + before +
+                ", isUsed=" + isUsed +
+                ", minSpeed=" + minSpeed +
+                ", maxSpeed=" + maxSpeed +
+                ", minCrewSize=" + minCrewSize +
+                ", maxCrewSize=" + maxCrewSize +
+                ", minRating=" + minRating +
+                ", maxRating=" + maxRating +
+                '}';
+    }
+
+    /**
+     * Compiles the filter into a single in-memory predicate. Bounds are unboxed once here, so evaluating
+     * the predicate allocates nothing per ship. The type, date, isUsed and range checks agree with
+     * {@link ShipSpecifications#byFilter(ShipFilter)}; name and planet use the case-sensitive
+     * {@link String#contains}, which agrees with its LIKE only under the binary collation init.sql gives
+     * those columns.
+     * <p>
+     * Requests are filtered in SQL; this is for ships already in memory, which in the application means
+     * {@code ShipQueryCache} deciding which cached results a write can change, without name and planet.
+     */
+    public Predicate<Ship> toPredicate() {
+        return new CompiledFilter(this);
+    }
+
+    private static final class CompiledFilter implements Predicate<Ship> {
+        private final String name;
+        private final String planet;
+        private final ShipType shipType;
+        private final long after;
+        private final long before;
+        private final boolean checkUsed;
+        private final boolean used;
+        private final double minSpeed;
+        private final double maxSpeed;
+        private final int minCrewSize;
+        private final int maxCrewSize;
+        private final double minRating;
+        private final double maxRating;
+        private final boolean checkSpeed;
+        private final boolean checkCrewSize;
+        private final boolean checkRating;
+
+        private CompiledFilter(ShipFilter filter) {
+            name = filter.name;
+            planet = filter.planet;
+            shipType = filter.shipType;
+            after = filter.after != null ? filter.after : Long.MIN_VALUE;
+            before = filter.before != null ? filter.before : Long.MAX_VALUE;
+            checkUsed = filter.isUsed != null;
+            used = checkUsed && filter.isUsed;
+            minSpeed = filter.minSpeed != null ? filter.minSpeed : Double.NEGATIVE_INFINITY;
+            maxSpeed = filter.maxSpeed != null ? filter.maxSpeed : Double.POSITIVE_INFINITY;
+            minCrewSize = filter.minCrewSize != null ? filter.minCrewSize : Integer.MIN_VALUE;
+            maxCrewSize = filter.maxCrewSize != null ? filter.maxCrewSize : Integer.MAX_VALUE;
+            minRating = filter.minRating != null ? filter.minRating : Double.NEGATIVE_INFINITY;
+            maxRating = filter.maxRating != null ? filter.maxRating : Double.POSITIVE_INFINITY;
+            checkSpeed = filter.minSpeed != null || filter.maxSpeed != null;
+            checkCrewSize = filter.minCrewSize != null || filter.maxCrewSize != null;
+            checkRating = filter.minRating != null || filter.maxRating != null;
+        }
+
+        @Override
+        public boolean test(Ship ship) {
+            if (shipType != null && ship.getShipType() != shipType) {
+                return false;
+            }
+            if (checkUsed && (ship.getUsed() == null || ship.getUsed() != used)) {
+                return false;
+            }
+            if (after != Long.MIN_VALUE || before != Long.MAX_VALUE) {
+                if (ship.getProdDate() == null) {
+                    return false;
+                }
+                long prodDate = ship.getProdDate().getTime();
+                // strict bounds, as Date.after/Date.before and the SQL predicate
+                if ((after != Long.MIN_VALUE && prodDate <= after) || (before != Long.MAX_VALUE && prodDate >= before)) {
+                    return false;
+                }
+            }
+            if (checkSpeed) {
+                if (ship.getSpeed() == null) {
+                    return false;
+                }
+                double speed = ship.getSpeed();
+                if (speed < minSpeed || speed > maxSpeed) {
+                    return false;
+                }
+            }
+            if (checkCrewSize) {
+                if (ship.getCrewSize() == null) {
+                    return false;
+                }
+                int crewSize = ship.getCrewSize();
+                if (crewSize < minCrewSize || crewSize > maxCrewSize) {
+                    return false;
+                }
+            }
+            if (checkRating) {
+                if (ship.getRating() == null) {
+                    return false;
+                }
+                double rating = ship.getRating();
+                if (rating < minRating || rating > maxRating) {
+                    return false;
+                }
+            }
+            // substring checks are the most expensive, so they go last
+            if (name != null && (ship.getName() == null || !ship.getName().contains(name))) {
+                return false;
+            }
+            return planet == null || (ship.getPlanet() != null && ship.getPlanet().contains(planet));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.space.repository;
+
+import com.space.model.ShipImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ShipImportCheckpointRepository extends JpaRepository<ShipImportCheckpoint, String> {
+}
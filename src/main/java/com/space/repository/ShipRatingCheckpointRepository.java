@@ -0,0 +1,14 @@
+package com.space.repository;
+
+import com.space.model.ShipRatingCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ShipRatingCheckpointRepository extends JpaRepository<ShipRatingCheckpoint, Integer> {
+
+    /**
+     * The run that finished last; the stored ratings are computed against its reference year.
+     */
+    Optional<ShipRatingCheckpoint> findFirstByCompletedAtNotNullOrderByCompletedAtDesc();
+}
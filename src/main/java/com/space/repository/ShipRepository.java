@@ -2,7 +2,29 @@ package com.space.repository;
 
 import com.space.model.Ship;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface ShipRepository extends JpaRepository<Ship, Long> {
+import javax.persistence.QueryHint;
 
+import java.util.List;
+
+public interface ShipRepository extends JpaRepository<Ship, Long>, JpaSpecificationExecutor<Ship>, ShipRepositoryCustom {
+
+    /**
+     * {@code [id, name, planet]} of every ship, without building entities.
+     */
+    @Query("select s.id, s.name, s.planet from Ship s")
+    List<Object[]> findAllNamesAndPlanets();
+
+    @Query("select max(s.id) from Ship s")
+    Long findMaxId();
+
+    /**
+     * The ships with {@code from <= id < to}, without dirty-checking snapshots.
+     */
+    @Query("select s from Ship s where s.id >= ?1 and s.id < ?2")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"))
+    List<Ship> findIdRange(long from, long to);
 }
@@ -0,0 +1,46 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ShipRepositoryCustom {
+
+    /**
+     * Loads a single page of ships as one SELECT with WHERE/ORDER BY/LIMIT.
+     * Unlike {@code findAll(Specification, Pageable)} no COUNT query is issued. The ships are plain
+     * objects, not entities: changing them does not write back.
+     */
+    List<Ship> findPage(Specification<Ship> specification, Pageable pageable);
+
+    /**
+     * Streams the matching ships from a forward-only cursor, {@code cosmoport.export.fetch-size} rows
+     * per round trip. Like {@link #findPage} the ships are plain objects that the persistence context
+     * does not hold on to, so memory does not grow with the result. The stream must be consumed and
+     * closed inside a transaction.
+     */
+    Stream<Ship> stream(Specification<Ship> specification, Sort sort);
+
+    /**
+     * Reserves {@code count} consecutive ids in the ship_seq table and returns the first of them.
+     */
+    long allocateIds(int count);
+
+    /**
+     * Persists ships whose ids are already assigned. The persistence context is flushed and cleared
+     * every {@code hibernate.jdbc.batch_size} ships, so the INSERTs go out as JDBC batches.
+     */
+    List<Ship> insertAll(List<Ship> ships);
+
+    /**
+     * Writes the rating of each ship in JDBC batches of {@code hibernate.jdbc.batch_size}. A row is only
+     * written while its speed, isUsed and prodDate still equal those of {@code ships}, so a concurrent
+     * update is never overwritten with a rating of stale values. Returns the rows that were written as
+     * they are now, read back under the row locks of the update, so other columns are not stale either.
+     */
+    List<Ship> updateRatings(List<Ship> ships);
+}
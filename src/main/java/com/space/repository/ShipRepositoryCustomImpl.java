@@ -0,0 +1,188 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class ShipRepositoryCustomImpl implements ShipRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Value("${cosmoport.jdbc.batch-size:50}")
+    private int batchSize;
+    @Value("${cosmoport.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    public List<Ship> findPage(Specification<Ship> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = cb.createQuery(Ship.class);
+        Root<Ship> root = query.from(Ship.class);
+        query.select(projection(root, cb))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Ship> stream(Specification<Ship> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = cb.createQuery(Ship.class);
+        Root<Ship> root = query.from(Ship.class);
+        query.select(projection(root, cb))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * Builds each row with {@code new Ship(...)} instead of loading an entity, so Hibernate keeps
+     * neither the instance nor a dirty-checking snapshot of it in the persistence context.
+     */
+    private static CompoundSelection<Ship> projection(Root<Ship> root, CriteriaBuilder cb) {
+        return cb.construct(Ship.class, root.get("id"), root.get("name"), root.get("planet"), root.get("shipType"),
+                root.get("prodDate"), root.get("isUsed"), root.get("speed"), root.get("crewSize"), root.get("rating"));
+    }
+
+    @Override
+    @Transactional
+    public long allocateIds(int count) {
+        long first = ((Number) entityManager.createNativeQuery("select next_val from ship_seq for update")
+                .getSingleResult()).longValue();
+        entityManager.createNativeQuery("update ship_seq set next_val = ?1")
+                .setParameter(1, first + count)
+                .executeUpdate();
+        return first;
+    }
+
+    @Override
+    @Transactional
+    public List<Ship> insertAll(List<Ship> ships) {
+        for (int i = 0; i < ships.size(); i++) {
+            entityManager.persist(ships.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ships;
+    }
+
+    @Override
+    @Transactional
+    public List<Ship> updateRatings(List<Ship> ships) {
+        List<Ship> written = new ArrayList<>();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            Set<Long> updated = new HashSet<>();
+            Map<Long, Ship> unknown = new HashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "update ship set rating = ? where id = ? and speed = ? and isUsed = ? and prodDate = ?")) {
+                for (int from = 0; from < ships.size(); from += batchSize) {
+                    List<Ship> batch = ships.subList(from, Math.min(from + batchSize, ships.size()));
+                    for (Ship ship : batch) {
+                        statement.setDouble(1, ship.getRating());
+                        statement.setLong(2, ship.getId());
+                        statement.setDouble(3, ship.getSpeed());
+                        statement.setBoolean(4, ship.getUsed());
+                        // prodDate is a DATE column: a timestamp would also have to match the time of day,
+                        // which the driver shifts when the server time zone differs from the JVM's
+                        statement.setDate(5, new java.sql.Date(ship.getProdDate().getTime()));
+                        statement.addBatch();
+                    }
+                    int[] counts = statement.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0) {
+                            updated.add(batch.get(i).getId());
+                        } else if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                            // what a rewritten MySQL batch reports instead of row counts
+                            unknown.put(batch.get(i).getId(), batch.get(i));
+                        }
+                    }
+                }
+            }
+            List<Long> ids = new ArrayList<>(updated);
+            ids.addAll(unknown.keySet());
+            for (Ship row : lockRows(connection, ids)) {
+                Ship requested = unknown.get(row.getId());
+                if (requested == null || (Objects.equals(row.getRating(), requested.getRating())
+                        && Objects.equals(row.getSpeed(), requested.getSpeed()) && Objects.equals(row.getUsed(), requested.getUsed())
+                        && row.getProdDate() != null && day(row.getProdDate()).equals(day(requested.getProdDate())))) {
+                    written.add(row);
+                }
+            }
+        });
+        return written;
+    }
+
+    private static LocalDate day(Date date) {
+        return new java.sql.Date(date.getTime()).toLocalDate();
+    }
+
+    /**
+     * Reads the rows with the given ids with SELECT ... FOR UPDATE: the latest committed values plus this
+     * transaction's own writes, where a plain SELECT could return an older snapshot.
+     */
+    private List<Ship> lockRows(Connection connection, List<Long> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Ship> rows = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            try (PreparedStatement statement = connection.prepareStatement("select id, name, planet, shipType, prodDate, "
+                    + "isUsed, speed, crewSize, rating from ship where id in (" + placeholders + ") for update")) {
+                for (int i = 0; i < batch.size(); i++) {
+                    statement.setLong(i + 1, batch.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String shipType = resultSet.getString(4);
+                        rows.add(new Ship(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                                shipType == null ? null : ShipType.valueOf(shipType), resultSet.getTimestamp(5),
+                                resultSet.getObject(6, Boolean.class), resultSet.getObject(7, Double.class),
+                                resultSet.getObject(8, Integer.class), resultSet.getObject(9, Double.class)));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+}
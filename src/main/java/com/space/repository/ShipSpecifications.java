@@ -0,0 +1,137 @@
+package com.space.repository;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Translates a {@link ShipFilter} and a {@link ShipOrder} into a WHERE and ORDER BY clause,
+ * keeping the semantics of the former in-memory filters: substring match for name and planet,
+ * strict bounds for after/before and inclusive bounds for speed, crew size and rating.
+ * The substring match is only case-sensitive like {@link String#contains} because init.sql gives
+ * name and planet a binary collation; under MySQL's default utf8_general_ci, LIKE would ignore case
+ * and accents.
+ */
+public final class ShipSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ShipSpecifications() {
+    }
+
+    public static Specification<Ship> byFilter(ShipFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getName() != null) {
+                predicates.add(contains(cb, root, "name", filter.getName()));
+            }
+            if (filter.getPlanet() != null) {
+                predicates.add(contains(cb, root, "planet", filter.getPlanet()));
+            }
+            if (filter.getShipType() != null) {
+                predicates.add(cb.equal(root.get("shipType"), filter.getShipType()));
+            }
+            if (filter.getAfter() != null) {
+                predicates.add(cb.greaterThan(root.get("prodDate"), new Date(filter.getAfter())));
+            }
+            if (filter.getBefore() != null) {
+                predicates.add(cb.lessThan(root.get("prodDate"), new Date(filter.getBefore())));
+            }
+            if (filter.getUsed() != null) {
+                predicates.add(cb.equal(root.get("isUsed"), filter.getUsed()));
+            }
+            if (filter.getMinSpeed() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("speed"), filter.getMinSpeed()));
+            }
+            if (filter.getMaxSpeed() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("speed"), filter.getMaxSpeed()));
+            }
+            if (filter.getMinCrewSize() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("crewSize"), filter.getMinCrewSize()));
+            }
+            if (filter.getMaxCrewSize() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("crewSize"), filter.getMaxCrewSize()));
+            }
+            if (filter.getMinRating() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("rating"), filter.getMinRating()));
+            }
+            if (filter.getMaxRating() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("rating"), filter.getMaxRating()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Restricts the result to the given ids; an empty collection matches nothing.
+     */
+    public static Specification<Ship> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty()
+                ? cb.disjunction()
+                : root.get(ShipOrder.ID.getFieldName()).in(ids);
+    }
+
+    /**
+     * Seek predicate for keyset pagination: ships strictly after the cursor in {@link #byOrder(ShipOrder)} order.
+     * Written as {@code key >= k AND (key > k OR id > i)} so that the leading conjunct is a plain range
+     * on the (key, id) index.
+     */
+    public static Specification<Ship> after(ShipCursor cursor) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get(ShipOrder.ID.getFieldName());
+            switch (cursor.getOrder()) {
+                case SPEED:
+                case RATING: {
+                    Path<Double> key = root.get(cursor.getOrder().getFieldName());
+                    Double value = cursor.getKey().doubleValue();
+                    return cb.and(cb.greaterThanOrEqualTo(key, value),
+                            cb.or(cb.greaterThan(key, value), cb.greaterThan(id, cursor.getId())));
+                }
+                case DATE: {
+                    Path<Date> key = root.get(cursor.getOrder().getFieldName());
+                    Date value = new Date(cursor.getKey().longValue());
+                    return cb.and(cb.greaterThanOrEqualTo(key, value),
+                            cb.or(cb.greaterThan(key, value), cb.greaterThan(id, cursor.getId())));
+                }
+                default:
+                    return cb.greaterThan(id, cursor.getId());
+            }
+        };
+    }
+
+    /**
+     * Sort for the given order; ties are broken by id so that paging stays stable.
+     */
+    public static Sort byOrder(ShipOrder order) {
+        if (order == null || order == ShipOrder.ID) {
+            return Sort.by(Sort.Direction.ASC, ShipOrder.ID.getFieldName());
+        }
+        return Sort.by(Sort.Direction.ASC, order.getFieldName(), ShipOrder.ID.getFieldName());
+    }
+
+    private static Predicate contains(CriteriaBuilder cb, Root<Ship> root, String field, String value) {
+        return cb.like(root.get(field), "%" + escapeLike(value) + "%", LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.space.service;
+
+/**
+ * Point-in-time counters of an application-level cache.
+ */
+public class CacheStatistics {
+    private final long size;
+    private final long maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final long expirations;
+
+    public CacheStatistics(long size, long maxSize, long hits, long misses, long evictions, long invalidations, long expirations) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.expirations = expirations;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+}
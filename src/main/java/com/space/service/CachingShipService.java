@@ -0,0 +1,108 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipPage;
+import com.space.model.ShipSuggestion;
+import com.space.model.ShipType;
+import com.space.repository.ShipFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Serves repeated list, page and count queries from {@link ShipQueryCache} and ship lookups by id
+ * from {@link ShipEntityCache} in front of {@link ShipServiceImpl}, so a cache hit opens neither
+ * a transaction nor a connection.
+ * Everything else is delegated unchanged.
+ */
+@Service
+@Primary
+public class CachingShipService implements ShipService {
+
+    @Autowired
+    @Qualifier("shipServiceImpl")
+    private ShipService shipService;
+    @Autowired
+    private ShipQueryCache shipQueryCache;
+    @Autowired
+    private ShipEntityCache shipEntityCache;
+
+    @Override
+    public ShipPage findAllShips(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed,
+                                 Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order, Integer pageNumber,
+                                 Integer pageSize, String cursor) {
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        return shipQueryCache.get(ShipQueryCache.listKey(filter, order, pageNumber, pageSize, cursor),
+                () -> {
+                    ShipPage page = shipService.findAllShips(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                            minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize, cursor);
+                    return new ShipPage(Collections.unmodifiableList(page.getShips()), null, page.getNextCursor());
+                });
+    }
+
+    @Override
+    public ShipPage findShipsPage(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed,
+                                  Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order, Integer pageNumber,
+                                  Integer pageSize, String cursor) {
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        return shipQueryCache.get(ShipQueryCache.pageKey(filter, order, pageNumber, pageSize, cursor),
+                () -> shipService.findShipsPage(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                        minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize, cursor));
+    }
+
+    @Override
+    public Integer findNumberOfShips(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed,
+                                     Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating) {
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        return shipQueryCache.get(ShipQueryCache.countKey(filter),
+                () -> shipService.findNumberOfShips(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                        minCrewSize, maxCrewSize, minRating, maxRating));
+    }
+
+    @Override
+    public Ship findShipByID(Long id) {
+        if (id < 1) {
+            return shipService.findShipByID(id);
+        }
+        return shipEntityCache.get(id, () -> shipService.findShipByID(id));
+    }
+
+    @Override
+    public void exportShips(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order, Consumer<Ship> consumer) {
+        // too large to cache, and streamed anyway
+        shipService.exportShips(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize,
+                maxCrewSize, minRating, maxRating, order, consumer);
+    }
+
+    @Override
+    public List<ShipSuggestion> suggest(String field, String prefix, Integer limit) {
+        return shipService.suggest(field, prefix, limit);
+    }
+
+    @Override
+    public Ship createShip(Ship ship) {
+        return shipService.createShip(ship);
+    }
+
+    @Override
+    public ShipBatchResult createShips(List<Ship> ships) {
+        return shipService.createShips(ships);
+    }
+
+    @Override
+    public void deleteShip(Long id) {
+        shipService.deleteShip(id);
+    }
+
+    @Override
+    public Ship updateShip(Long id, Ship ship) {
+        return shipService.updateShip(id, ship);
+    }
+}
@@ -0,0 +1,21 @@
+package com.space.service;
+
+import com.space.model.Ship;
+
+/**
+ * Keeps in-memory structures derived from the ship table in step with {@link ShipService} writes.
+ * Notifications are delivered after the writing transaction has committed.
+ */
+public interface ShipChangeListener {
+
+    /**
+     * @param before the ship as it was before the change, {@code null} if it was just created
+     * @param after  the ship as it is now, {@code null} if it was deleted
+     */
+    void shipChanged(Ship before, Ship after);
+
+    /**
+     * Forgets everything, e.g. after the ship table was changed bypassing {@link ShipService}.
+     */
+    void reset();
+}
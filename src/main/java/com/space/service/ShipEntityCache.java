@@ -0,0 +1,123 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of ships by id with a time to live, filled by reads only. Writes through
+ * {@link ShipService} replace or remove the copy of a ship already cached and leave other ships out,
+ * so bulk writes do not push the hot entries out; the TTL bounds staleness after changes made outside of it.
+ * Callers always get their own copy, so the cached instance cannot be modified.
+ */
+@Component
+public class ShipEntityCache implements ShipChangeListener {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> entries;
+    // the load in flight per id; a write of the id drops it, so a copy loaded before the write is not cached
+    private final Map<Long, Object> loads = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private long expirations;
+
+    public ShipEntityCache(@Value("${cosmoport.cache.entity.max-entries:10000}") int maxEntries,
+                           @Value("${cosmoport.cache.entity.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ShipEntityCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Ship get(Long id, Supplier<Ship> loader) {
+        Object load = new Object();
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits++;
+                return new Ship(entry.ship);
+            }
+            if (entry != null) {
+                entries.remove(id);
+                expirations++;
+            }
+            misses++;
+            loads.put(id, load);
+        }
+        Ship ship = null;
+        try {
+            ship = loader.get();
+            return ship;
+        } finally {
+            synchronized (this) {
+                if (loads.get(id) == load) {
+                    loads.remove(id);
+                    if (ship != null) {
+                        put(ship);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void shipChanged(Ship before, Ship after) {
+        Long id = after != null ? after.getId() : before != null ? before.getId() : null;
+        if (id == null) {
+            return;
+        }
+        loads.remove(id);
+        if (!entries.containsKey(id)) {
+            return;
+        }
+        if (after != null) {
+            put(after);
+        } else {
+            entries.remove(id);
+            invalidations++;
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        loads.clear();
+        entries.clear();
+    }
+
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(entries.size(), maxEntries, hits, misses, evictions, invalidations, expirations);
+    }
+
+    private void put(Ship ship) {
+        if (maxEntries > 0) {
+            entries.put(ship.getId(), new Entry(new Ship(ship), System.nanoTime() + ttlNanos));
+        }
+    }
+
+    private static final class Entry {
+        private final Ship ship;
+        private final long expiresAt;
+
+        private Entry(Ship ship, long expiresAt) {
+            this.ship = ship;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Assigns ship ids from blocks reserved in the {@code ship_seq} table (pooled-lo allocation).
+ * One round trip reserves {@code cosmoport.id.allocation-size} ids, so unlike AUTO_INCREMENT the id is
+ * known before the INSERT and Hibernate can batch the statements. Ids left in a block when the
+ * application stops are skipped, not reused.
+ */
+@Component
+public class ShipIdAllocator {
+
+    @Autowired
+    private ShipRepository shipRepository;
+
+    private final int allocationSize;
+    private long next;
+    private long limit;
+
+    public ShipIdAllocator(@Value("${cosmoport.id.allocation-size:50}") int allocationSize) {
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * Sets the id of every ship. Call it outside of a transaction, otherwise the ship_seq row stays
+     * locked until that transaction ends.
+     */
+    public synchronized void assign(List<Ship> ships) {
+        for (int i = 0; i < ships.size(); i++) {
+            if (next == limit) {
+                // one reservation covers the rest of the list, rounded up to whole blocks
+                int needed = ships.size() - i;
+                int size = (needed + allocationSize - 1) / allocationSize * allocationSize;
+                next = shipRepository.allocateIds(size);
+                limit = next + size;
+            }
+            ships.get(i).setId(next++);
+        }
+    }
+
+    /**
+     * Drops the rest of the reserved block, so the next {@link #assign} reserves ids from ship_seq again,
+     * e.g. after the table was reloaded.
+     */
+    public synchronized void reset() {
+        next = 0;
+        limit = 0;
+    }
+}
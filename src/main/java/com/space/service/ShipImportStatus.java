@@ -0,0 +1,88 @@
+package com.space.service;
+
+import java.util.List;
+
+/**
+ * Point-in-time progress of a file import. Row counts include earlier, resumed runs of the same file;
+ * {@code rowsPerSecond} covers the current run only.
+ */
+public class ShipImportStatus {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String source;
+    private final State state;
+    private final long bytesTotal;
+    private final long bytesRead;
+    private final long linesRead;
+    private final long imported;
+    private final long rejected;
+    private final double rowsPerSecond;
+    private final long elapsedMillis;
+    private final List<String> errors;
+    private final String failure;
+
+    public ShipImportStatus(String source, State state, long bytesTotal, long bytesRead, long linesRead, long imported,
+                            long rejected, double rowsPerSecond, long elapsedMillis, List<String> errors, String failure) {
+        this.source = source;
+        this.state = state;
+        this.bytesTotal = bytesTotal;
+        this.bytesRead = bytesRead;
+        this.linesRead = linesRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rowsPerSecond = rowsPerSecond;
+        this.elapsedMillis = elapsedMillis;
+        this.errors = errors;
+        this.failure = failure;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * The first rejected lines with their reason.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+}
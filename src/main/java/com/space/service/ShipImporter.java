@@ -0,0 +1,411 @@
+package com.space.service;
+
+import com.space.controller.ShipExportFormat;
+import com.space.exception.ShipBadRequestException;
+import com.space.model.Ship;
+import com.space.model.ShipBatchError;
+import com.space.model.ShipImportCheckpoint;
+import com.space.repository.ShipImportCheckpointRepository;
+import com.space.repository.ShipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads ships from a local NDJSON or CSV file in the /rest/ships/export layout.
+ * <p>
+ * One thread reads the file through a {@link FileChannel} in line-aligned chunks of
+ * {@code cosmoport.import.chunk-bytes}, {@code cosmoport.import.parsers} threads parse, validate and
+ * rate the chunks with {@link ShipRules}, and the calling thread writes them back in file order, one
+ * transaction per chunk. Both hand-offs are bounded queues, so a slow database stalls the parsers and
+ * then the reader instead of filling the heap. Each transaction also stores a
+ * {@link ShipImportCheckpoint}; importing the same file again continues behind the last committed
+ * chunk, which resumes a failed import and picks up lines appended since. The
+ * {@link ShipChangeListener}s hear about the ships of each chunk once it is committed.
+ * <p>
+ * Over REST, only files below {@code cosmoport.import.directory} can be imported; without it the
+ * endpoint is off.
+ */
+@Component
+public class ShipImporter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipImporter.class);
+    private static final long LOG_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final Chunk END = new Chunk(-1, -1, new byte[0]);
+
+    @Autowired
+    private ShipRepository shipRepository;
+    @Autowired
+    private ShipImportCheckpointRepository checkpointRepository;
+    @Autowired
+    private ShipIdAllocator shipIdAllocator;
+    @Autowired
+    private List<ShipChangeListener> shipChangeListeners;
+    @Autowired
+    private ShipTextIndex shipTextIndex;
+    @Autowired
+    private ShipRatingRecomputer shipRatingRecomputer;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int parsers;
+    private int chunkBytes;
+    // null when imports over REST are off
+    private Path importDirectory;
+    // imports run one after another
+    private final ExecutorService jobs = Executors.newSingleThreadExecutor();
+    private final Map<String, ShipImportStatus> statuses = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ShipImporter(PlatformTransactionManager transactionManager,
+                        @Value("${cosmoport.import.parsers:0}") int parsers,
+                        @Value("${cosmoport.import.chunk-bytes:1048576}") int chunkBytes,
+                        @Value("${cosmoport.import.directory:}") String importDirectory) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parsers = parsers > 0 ? parsers : Runtime.getRuntime().availableProcessors();
+        this.chunkBytes = chunkBytes;
+        this.importDirectory = importDirectory.isEmpty() ? null : Paths.get(importDirectory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Queues the import of {@code path}, relative to the import directory, and returns at once;
+     * follow it with {@link #getStatuses()}.
+     *
+     * @throws ShipBadRequestException if imports are off or {@code path} is not a file inside the import directory
+     */
+    public ShipImportStatus start(String path, ShipExportFormat format) {
+        Path file = resolve(path);
+        String source = sourceOf(file);
+        ShipImportStatus previous = statuses.get(source);
+        if (previous != null && previous.getState() == ShipImportStatus.State.RUNNING) {
+            throw new ShipBadRequestException(source + " is already being imported");
+        }
+        ShipImportStatus queued = new ShipImportStatus(source, ShipImportStatus.State.RUNNING, file.toFile().length(),
+                0, 0, 0, 0, 0, 0, Collections.emptyList(), null);
+        statuses.put(source, queued);
+        jobs.submit(() -> run(file, format));
+        return queued;
+    }
+
+    /**
+     * Imports {@code file} on the calling thread. Failures are reported in the returned status.
+     */
+    public ShipImportStatus run(Path file, ShipExportFormat format) {
+        Run run = new Run(sourceOf(file));
+        try {
+            run.execute(file, format);
+            return run.report(ShipImportStatus.State.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Import of " + run.checkpoint.getSource() + " failed", e);
+            return run.report(ShipImportStatus.State.FAILED, e.toString());
+        }
+    }
+
+    public List<ShipImportStatus> getStatuses() {
+        return new ArrayList<>(statuses.values());
+    }
+
+    @Override
+    public void destroy() {
+        jobs.shutdownNow();
+    }
+
+    /**
+     * {@code path} resolved against the import directory, which it must not leave, also through links.
+     */
+    private Path resolve(String path) {
+        if (importDirectory == null) {
+            throw new ShipBadRequestException("Imports are off: cosmoport.import.directory is not set");
+        }
+        try {
+            Path file = importDirectory.resolve(path).normalize();
+            if (file.startsWith(importDirectory) && Files.isRegularFile(file)
+                    && file.toRealPath().startsWith(importDirectory.toRealPath())) {
+                return file;
+            }
+        } catch (InvalidPathException | IOException e) {
+            // reported below
+        }
+        throw new ShipBadRequestException(path + " is not a file in the import directory");
+    }
+
+    private static String sourceOf(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * A line-aligned slice of the file; {@code end} is the file offset just behind it.
+     */
+    private static final class Chunk {
+        final long sequence;
+        final long end;
+        final byte[] bytes;
+
+        Chunk(long sequence, long end, byte[] bytes) {
+            this.sequence = sequence;
+            this.end = end;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class ParsedChunk {
+        final Chunk chunk;
+        final int lines;
+        final List<Ship> ships = new ArrayList<>();
+        // index is the line number within the chunk
+        final List<ShipBatchError> errors = new ArrayList<>();
+
+        ParsedChunk(Chunk chunk, int lines) {
+            this.chunk = chunk;
+            this.lines = lines;
+        }
+    }
+
+    private final class Run {
+        ShipImportCheckpoint checkpoint;
+        final List<String> errors = new ArrayList<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // number of chunks, known once the reader has reached the end of the file
+        final AtomicLong chunkCount = new AtomicLong(-1);
+        final long startedAt = System.currentTimeMillis();
+        long bytesTotal;
+        long rowsThisRun;
+        long lastLog = startedAt;
+
+        Run(String source) {
+            checkpoint = checkpointRepository.findById(source)
+                    .orElseGet(() -> new ShipImportCheckpoint(source, 0L, 0L, 0L, 0L));
+        }
+
+        void execute(Path file, ShipExportFormat format) throws Exception {
+            ExecutorService workers = Executors.newFixedThreadPool(parsers + 1);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                bytesTotal = channel.size();
+                if (checkpoint.getBytesRead() > bytesTotal) {
+                    throw new IllegalStateException(checkpoint.getSource() + " is shorter than the "
+                            + checkpoint.getBytesRead() + " bytes imported before");
+                }
+                ShipRecordParser parser = ShipRecordParser.ndjson();
+                if (format == ShipExportFormat.CSV) {
+                    String header = readHeader(channel);
+                    parser = ShipRecordParser.csv(header.trim());
+                    if (checkpoint.getBytesRead() == 0) {
+                        checkpoint.setBytesRead((long) header.getBytes(StandardCharsets.UTF_8).length + 1);
+                        checkpoint.setLinesRead(1L);
+                    }
+                }
+                report(ShipImportStatus.State.RUNNING, null);
+
+                BlockingQueue<Chunk> read = new ArrayBlockingQueue<>(2 * parsers);
+                BlockingQueue<ParsedChunk> parsed = new ArrayBlockingQueue<>(2 * parsers);
+                long start = checkpoint.getBytesRead();
+                ShipRecordParser lineParser = parser;
+                workers.submit(guarded(() -> readChunks(channel, start, read)));
+                for (int i = 0; i < parsers; i++) {
+                    workers.submit(guarded(() -> parseChunks(read, parsed, lineParser)));
+                }
+                writeChunks(parsed);
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+
+        private Runnable guarded(Task task) {
+            return () -> {
+                try {
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            };
+        }
+
+        private String readHeader(FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            channel.read(buffer, 0);
+            String start = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+            int newline = start.indexOf('\n');
+            if (newline < 0) {
+                throw new IllegalStateException("CSV header line missing");
+            }
+            return start.substring(0, newline);
+        }
+
+        private void readChunks(FileChannel channel, long start, BlockingQueue<Chunk> read) throws IOException, InterruptedException {
+            ByteBuffer buffer = ByteBuffer.allocate(chunkBytes);
+            long position = start;
+            channel.position(position);
+            long sequence = 0;
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(buffer) < 0;
+                if (!eof && buffer.hasRemaining()) {
+                    continue;
+                }
+                int length = buffer.position();
+                int cut = eof ? length : lastNewline(buffer.array(), length) + 1;
+                if (cut == 0 && !eof) {
+                    throw new IllegalStateException("line at offset " + position + " is longer than " + chunkBytes + " bytes");
+                }
+                if (length > 0) {
+                    position += cut;
+                    // blocks while the parsers are behind
+                    read.put(new Chunk(sequence++, position, Arrays.copyOf(buffer.array(), cut)));
+                }
+                System.arraycopy(buffer.array(), cut, buffer.array(), 0, length - cut);
+                buffer.position(length - cut);
+            }
+            chunkCount.set(sequence);
+            for (int i = 0; i < parsers; i++) {
+                read.put(END);
+            }
+        }
+
+        private int lastNewline(byte[] bytes, int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void parseChunks(BlockingQueue<Chunk> read, BlockingQueue<ParsedChunk> parsed, ShipRecordParser parser)
+                throws InterruptedException {
+            for (Chunk chunk = read.take(); chunk != END; chunk = read.take()) {
+                String text = new String(chunk.bytes, StandardCharsets.UTF_8);
+                List<String> lines = new ArrayList<>();
+                int from = 0;
+                while (from < text.length()) {
+                    int newline = text.indexOf('\n', from);
+                    int to = newline < 0 ? text.length() : newline;
+                    lines.add(text.substring(from, to > from && text.charAt(to - 1) == '\r' ? to - 1 : to));
+                    from = to + 1;
+                }
+                ParsedChunk result = new ParsedChunk(chunk, lines.size());
+                int referenceYear = shipRatingRecomputer.getReferenceYear();
+                for (int i = 0; i < lines.size(); i++) {
+                    if (lines.get(i).trim().isEmpty()) {
+                        continue;
+                    }
+                    String error;
+                    try {
+                        Ship ship = parser.parse(lines.get(i));
+                        error = ShipRules.validationError(ship);
+                        if (error == null) {
+                            ShipRules.prepareForInsert(ship, referenceYear);
+                            result.ships.add(ship);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        error = e.getMessage();
+                    }
+                    if (error != null) {
+                        result.errors.add(new ShipBatchError(i, error));
+                    }
+                }
+                parsed.put(result);
+            }
+        }
+
+        /**
+         * Writes the parsed chunks in file order, holding back the ones that overtook their predecessors.
+         */
+        private void writeChunks(BlockingQueue<ParsedChunk> parsed) throws Exception {
+            Map<Long, ParsedChunk> reorder = new HashMap<>();
+            long next = 0;
+            while (chunkCount.get() < 0 || next < chunkCount.get()) {
+                Throwable thrown = failure.get();
+                if (thrown != null) {
+                    throw new IllegalStateException(thrown.getMessage(), thrown);
+                }
+                ParsedChunk chunk = parsed.poll(100, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    reorder.put(chunk.chunk.sequence, chunk);
+                }
+                for (chunk = reorder.remove(next); chunk != null; chunk = reorder.remove(next)) {
+                    write(chunk);
+                    next++;
+                }
+            }
+        }
+
+        private void write(ParsedChunk parsed) {
+            // ids are reserved outside the chunk transaction, see ShipIdAllocator#assign
+            shipIdAllocator.assign(parsed.ships);
+            ShipImportCheckpoint next = new ShipImportCheckpoint(checkpoint.getSource(), parsed.chunk.end,
+                    checkpoint.getLinesRead() + parsed.lines, checkpoint.getImported() + parsed.ships.size(),
+                    checkpoint.getRejected() + parsed.errors.size());
+            shipTextIndex.writeStarted(parsed.ships);
+            try {
+                transactionTemplate.execute(status -> {
+                    shipRepository.insertAll(parsed.ships);
+                    return checkpointRepository.save(next);
+                });
+                for (Ship ship : parsed.ships) {
+                    shipChangeListeners.forEach(l -> l.shipChanged(null, ship));
+                }
+            } finally {
+                shipTextIndex.writeFinished(parsed.ships);
+            }
+            for (ShipBatchError error : parsed.errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("line " + (checkpoint.getLinesRead() + error.getIndex() + 1) + ": " + error.getMessage());
+                }
+            }
+            checkpoint = next;
+            rowsThisRun += parsed.ships.size() + parsed.errors.size();
+
+            ShipImportStatus status = report(ShipImportStatus.State.RUNNING, null);
+            if (System.currentTimeMillis() - lastLog >= LOG_INTERVAL_MILLIS) {
+                lastLog = System.currentTimeMillis();
+                log.info(String.format("Importing %s: %d of %d bytes, %d ships, %d rejected, %.0f rows/s",
+                        status.getSource(), status.getBytesRead(), status.getBytesTotal(), status.getImported(),
+                        status.getRejected(), status.getRowsPerSecond()));
+            }
+        }
+
+        ShipImportStatus report(ShipImportStatus.State state, String failureMessage) {
+            long elapsed = System.currentTimeMillis() - startedAt;
+            ShipImportStatus status = new ShipImportStatus(checkpoint.getSource(), state, bytesTotal,
+                    checkpoint.getBytesRead(), checkpoint.getLinesRead(), checkpoint.getImported(), checkpoint.getRejected(),
+                    elapsed == 0 ? 0 : rowsThisRun * 1000d / elapsed, elapsed, new ArrayList<>(errors), failureMessage);
+            statuses.put(checkpoint.getSource(), status);
+            return status;
+        }
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+}
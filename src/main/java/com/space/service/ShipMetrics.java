@@ -0,0 +1,202 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.repository.ShipFilter;
+import org.HdrHistogram.AtomicHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and request and error counts of the REST endpoints, and of the list, page and
+ * count queries behind them per {@link ShipOrder} and {@link ShipFilter#shape() filter shape}, written
+ * in the Prometheus text format.
+ * <p>
+ * Each series is created on its first request; from then on recording a request is a few atomic
+ * increments on fixed-size {@link AtomicHistogram} counters (two significant digits, 1 µs to 1 minute),
+ * with no locks and no allocation. Latencies above a minute are recorded as a minute.
+ */
+@Component
+public class ShipMetrics {
+
+    public enum Query {
+        LIST, PAGE, COUNT
+    }
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final ShipOrder[] ORDERS = ShipOrder.values();
+    private static final Query[] QUERIES = Query.values();
+    private static final int SHAPES = 1 << ShipFilter.PARAMETERS.size();
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    // the default buckets of the Prometheus client libraries, in seconds
+    private static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    // per handler mapping pattern, a series per HTTP method
+    private final ConcurrentMap<String, AtomicReferenceArray<Series>> endpoints = new ConcurrentHashMap<>();
+    // per query, order (or none) and filter shape
+    private final AtomicReferenceArray<Series> queries = new AtomicReferenceArray<>(QUERIES.length * (ORDERS.length + 1) * SHAPES);
+
+    /**
+     * @param path the handler mapping pattern, such as {@code /rest/ships/{id}}, to keep the series few
+     */
+    public void recordRequest(HttpMethod method, String path, int status, long nanos) {
+        AtomicReferenceArray<Series> series = endpoints.get(path);
+        if (series == null) {
+            series = endpoints.computeIfAbsent(path, key -> new AtomicReferenceArray<>(METHODS.length));
+        }
+        series(series, method.ordinal(), STATUS_CLASSES.length).record(nanos, Math.min(Math.max(status / 100 - 1, 0), 4));
+    }
+
+    public void recordQuery(Query query, ShipOrder order, ShipFilter filter, long nanos, boolean failed) {
+        int index = (query.ordinal() * (ORDERS.length + 1) + (order == null ? 0 : order.ordinal() + 1)) * SHAPES + filter.shape();
+        series(queries, index, 2).record(nanos, failed ? 1 : 0);
+    }
+
+    private static Series series(AtomicReferenceArray<Series> array, int index, int outcomes) {
+        Series series = array.get(index);
+        if (series == null) {
+            array.compareAndSet(index, null, new Series(outcomes));
+            series = array.get(index);
+        }
+        return series;
+    }
+
+    public void writePrometheus(Writer out) throws IOException {
+        Map<String, AtomicReferenceArray<Series>> byPath = new TreeMap<>(endpoints);
+
+        family(out, "cosmoport_http_requests_total", "counter", "HTTP requests by endpoint and status class.");
+        for (Map.Entry<String, AtomicReferenceArray<Series>> endpoint : byPath.entrySet()) {
+            for (int method = 0; method < METHODS.length; method++) {
+                Series series = endpoint.getValue().get(method);
+                if (series != null) {
+                    for (int status = 0; status < STATUS_CLASSES.length; status++) {
+                        long count = series.outcomes[status].sum();
+                        if (count > 0) {
+                            sample(out, "cosmoport_http_requests_total", endpointLabels(METHODS[method], endpoint.getKey())
+                                    + ",status=\"" + STATUS_CLASSES[status] + "\"", count);
+                        }
+                    }
+                }
+            }
+        }
+        family(out, "cosmoport_http_request_duration_seconds", "histogram", "HTTP request latency by endpoint.");
+        for (Map.Entry<String, AtomicReferenceArray<Series>> endpoint : byPath.entrySet()) {
+            for (int method = 0; method < METHODS.length; method++) {
+                Series series = endpoint.getValue().get(method);
+                if (series != null) {
+                    histogram(out, "cosmoport_http_request_duration_seconds", endpointLabels(METHODS[method], endpoint.getKey()), series);
+                }
+            }
+        }
+        family(out, "cosmoport_http_request_latency_seconds", "summary", "HTTP request latency quantiles by endpoint since start.");
+        for (Map.Entry<String, AtomicReferenceArray<Series>> endpoint : byPath.entrySet()) {
+            for (int method = 0; method < METHODS.length; method++) {
+                Series series = endpoint.getValue().get(method);
+                if (series != null) {
+                    summary(out, "cosmoport_http_request_latency_seconds", endpointLabels(METHODS[method], endpoint.getKey()), series);
+                }
+            }
+        }
+
+        family(out, "cosmoport_ship_query_errors_total", "counter", "Failed ship queries by query, order and filter shape.");
+        for (int index = 0; index < queries.length(); index++) {
+            Series series = queries.get(index);
+            if (series != null) {
+                sample(out, "cosmoport_ship_query_errors_total", queryLabels(index), series.outcomes[1].sum());
+            }
+        }
+        family(out, "cosmoport_ship_query_duration_seconds", "histogram", "Ship query latency by query, order and filter shape.");
+        for (int index = 0; index < queries.length(); index++) {
+            Series series = queries.get(index);
+            if (series != null) {
+                histogram(out, "cosmoport_ship_query_duration_seconds", queryLabels(index), series);
+            }
+        }
+        family(out, "cosmoport_ship_query_latency_seconds", "summary", "Ship query latency quantiles by query, order and filter shape since start.");
+        for (int index = 0; index < queries.length(); index++) {
+            Series series = queries.get(index);
+            if (series != null) {
+                summary(out, "cosmoport_ship_query_latency_seconds", queryLabels(index), series);
+            }
+        }
+    }
+
+    private static String endpointLabels(HttpMethod method, String path) {
+        return "method=\"" + method.name() + "\",path=\"" + escape(path) + "\"";
+    }
+
+    private static String queryLabels(int index) {
+        int shape = index % SHAPES;
+        int order = index / SHAPES % (ORDERS.length + 1);
+        int query = index / SHAPES / (ORDERS.length + 1);
+        return "query=\"" + QUERIES[query].name().toLowerCase() + "\",order=\"" + (order == 0 ? "none" : ORDERS[order - 1].name())
+                + "\",filter=\"" + ShipFilter.describeShape(shape) + "\"";
+    }
+
+    private static void histogram(Writer out, String name, String labels, Series series) throws IOException {
+        Histogram snapshot = series.histogram.copy();
+        for (double bucket : BUCKETS) {
+            long micros = (long) (bucket * 1_000_000);
+            sample(out, name + "_bucket", labels + ",le=\"" + bucket + "\"", snapshot.getCountBetweenValues(0, micros));
+        }
+        sample(out, name + "_bucket", labels + ",le=\"+Inf\"", snapshot.getTotalCount());
+        out.write(name + "_sum{" + labels + "} " + series.sumMicros.sum() / 1e6 + "\n");
+        sample(out, name + "_count", labels, snapshot.getTotalCount());
+    }
+
+    private static void summary(Writer out, String name, String labels, Series series) throws IOException {
+        Histogram snapshot = series.histogram.copy();
+        for (double quantile : QUANTILES) {
+            out.write(name + "{" + labels + ",quantile=\"" + quantile + "\"} "
+                    + snapshot.getValueAtPercentile(quantile * 100) / 1e6 + "\n");
+        }
+        out.write(name + "_sum{" + labels + "} " + series.sumMicros.sum() / 1e6 + "\n");
+        sample(out, name + "_count", labels, snapshot.getTotalCount());
+    }
+
+    private static void family(Writer out, String name, String type, String help) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static void sample(Writer out, String name, String labels, long value) throws IOException {
+        out.write(name + "{" + labels + "} " + value + "\n");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Series {
+        private final AtomicHistogram histogram = new AtomicHistogram(MAX_MICROS, 2);
+        private final LongAdder sumMicros = new LongAdder();
+        // requests by status class or, for queries, succeeded and failed
+        private final LongAdder[] outcomes;
+
+        private Series(int outcomes) {
+            this.outcomes = new LongAdder[outcomes];
+            for (int i = 0; i < outcomes; i++) {
+                this.outcomes[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos, int outcome) {
+            long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0)), MAX_MICROS);
+            histogram.recordValue(micros);
+            sumMicros.add(micros);
+            outcomes[outcome].increment();
+        }
+    }
+}
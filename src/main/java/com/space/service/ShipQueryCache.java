@@ -0,0 +1,165 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.repository.ShipFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of list, page and count results keyed on the normalized query.
+ * A write only evicts the entries whose filter matches the ship before or after the change;
+ * a ship outside a filter cannot change that filter's result. Name and planet are left out of that
+ * test, since whether LIKE matches them depends on the database collation: an entry filtered by text is
+ * evicted whenever the ship passes the rest of its filter.
+ */
+@Component
+public class ShipQueryCache implements ShipChangeListener {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries;
+    // bumped by every write so that a result loaded concurrently with it is not cached
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public ShipQueryCache(@Value("${cosmoport.cache.query.max-entries:1000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ShipQueryCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        long loadGeneration;
+        long begin = ShipTrace.begin();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                ShipTrace.cacheHit(true);
+                ShipTrace.end(ShipTrace.Phase.CACHE, begin);
+                return (T) entry.value;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        ShipTrace.cacheHit(false);
+        ShipTrace.end(ShipTrace.Phase.CACHE, begin);
+        T value = loader.get();
+        synchronized (this) {
+            if (loadGeneration == generation && maxEntries > 0) {
+                entries.put(key, new Entry(value, withoutText(key.filter).toPredicate()));
+            }
+        }
+        return value;
+    }
+
+    private static ShipFilter withoutText(ShipFilter filter) {
+        if (filter.getName() == null && filter.getPlanet() == null) {
+            return filter;
+        }
+        return new ShipFilter(null, null, filter.getShipType(), filter.getAfter(), filter.getBefore(), filter.getUsed(),
+                filter.getMinSpeed(), filter.getMaxSpeed(), filter.getMinCrewSize(), filter.getMaxCrewSize(),
+                filter.getMinRating(), filter.getMaxRating());
+    }
+
+    @Override
+    public synchronized void shipChanged(Ship before, Ship after) {
+        generation++;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Predicate<Ship> predicate = iterator.next().predicate;
+            if ((before != null && predicate.test(before)) || (after != null && predicate.test(after))) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(entries.size(), maxEntries, hits, misses, evictions, invalidations, 0);
+    }
+
+    public static Key listKey(ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize, String cursor) {
+        return new Key("list", filter, order, pageNumber, pageSize, cursor);
+    }
+
+    public static Key pageKey(ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize, String cursor) {
+        return new Key("page", filter, order, pageNumber, pageSize, cursor);
+    }
+
+    public static Key countKey(ShipFilter filter) {
+        return new Key("count", filter, null, null, null, null);
+    }
+
+    public static final class Key {
+        private final String kind;
+        private final ShipFilter filter;
+        private final ShipOrder order;
+        private final Integer pageNumber;
+        private final Integer pageSize;
+        private final String cursor;
+
+        private Key(String kind, ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize, String cursor) {
+            this.kind = kind;
+            this.filter = filter;
+            this.order = order == null && pageSize != null ? ShipOrder.ID : order;
+            // the page number is ignored in keyset mode
+            this.pageNumber = cursor == null ? pageNumber : null;
+            this.pageSize = pageSize;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return kind.equals(key.kind) &&
+                    filter.equals(key.filter) &&
+                    order == key.order &&
+                    Objects.equals(pageNumber, key.pageNumber) &&
+                    Objects.equals(pageSize, key.pageSize) &&
+                    Objects.equals(cursor, key.cursor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, filter, order, pageNumber, pageSize, cursor);
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final Predicate<Ship> predicate;
+
+        private Entry(Object value, Predicate<Ship> predicate) {
+            this.value = value;
+            this.predicate = predicate;
+        }
+    }
+}
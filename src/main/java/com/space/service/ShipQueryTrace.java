@@ -0,0 +1,91 @@
+package com.space.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One list, page or count query of a traced request: its normalized parameters, the SQL Hibernate ran
+ * for it, and how many ships matched the filter against how many it returned. {@code rowsMatched} is
+ * {@code null} when the query did not count them, as a list or a full page in keyset mode does not;
+ * {@code rowsReturned} is {@code null} for a count.
+ */
+public class ShipQueryTrace {
+
+    private final String query;
+    private final String order;
+    private final Map<String, Object> filter;
+    private final Integer pageNumber;
+    private final Integer pageSize;
+    private final String cursor;
+    private final List<String> sql = new ArrayList<>();
+    private Long rowsMatched;
+    private Integer rowsReturned;
+    private boolean failed = true;
+    private double elapsedMillis;
+    private final transient long startNanos = System.nanoTime();
+
+    ShipQueryTrace(String query, String order, Map<String, Object> filter, Integer pageNumber, Integer pageSize, String cursor) {
+        this.query = query;
+        this.order = order;
+        this.filter = filter;
+        this.pageNumber = pageNumber;
+        this.pageSize = pageSize;
+        this.cursor = cursor;
+    }
+
+    void addSql(String statement) {
+        sql.add(statement);
+    }
+
+    void finish(Long rowsMatched, Integer rowsReturned, boolean failed) {
+        this.rowsMatched = rowsMatched;
+        this.rowsReturned = rowsReturned;
+        this.failed = failed;
+        this.elapsedMillis = (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public Map<String, Object> getFilter() {
+        return filter;
+    }
+
+    public Integer getPageNumber() {
+        return pageNumber;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public List<String> getSql() {
+        return sql;
+    }
+
+    public Long getRowsMatched() {
+        return rowsMatched;
+    }
+
+    public Integer getRowsReturned() {
+        return rowsReturned;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
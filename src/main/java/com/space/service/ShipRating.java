@@ -0,0 +1,109 @@
+package com.space.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Rating arithmetic of {@link ShipRules} on primitives: no {@code ZonedDateTime}, {@code Calendar} or
+ * {@code BigDecimal} per call. The results are bit-identical to that code, which ShipRatingTest checks
+ * over the whole valid input domain.
+ */
+public final class ShipRating {
+
+    // range of the year table; instants outside of it take the java.time path
+    private static final int FIRST_YEAR = 1970;
+    private static final int LAST_YEAR = 3100;
+    private static final long AVERAGE_YEAR_MILLIS = 31_556_952_000L;
+    // beyond this magnitude roundToHundreds takes the BigDecimal path
+    private static final double MAX_FAST_ROUNDING = 1e9;
+
+    private static volatile Years years;
+
+    private ShipRating() {
+    }
+
+    /**
+     * The year of {@code epochMillis} in the JVM's default time zone, like
+     * {@code Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).getYear()}.
+     * The default zone is read on first use; a later {@code TimeZone.setDefault} needs {@link #useZone}.
+     */
+    public static int year(long epochMillis) {
+        Years table = years;
+        if (table == null) {
+            table = new Years(ZoneId.systemDefault());
+            years = table;
+        }
+        return table.year(epochMillis);
+    }
+
+    /**
+     * Makes {@link #year(long)} use {@code zone} from now on.
+     */
+    public static void useZone(ZoneId zone) {
+        years = new Years(zone);
+    }
+
+    /**
+     * The rating of a ship built in {@code prodYear}, aged against {@code referenceYear}, see
+     * {@link ShipRatingRecomputer#getReferenceYear()}.
+     */
+    public static double rating(double speed, boolean used, int prodYear, int referenceYear) {
+        double coefficientUsed = used ? 0.5d : 1.0d;
+        double rating = (80 * speed * coefficientUsed) / (double) (referenceYear - prodYear + 1);
+        return roundToHundreds(rating);
+    }
+
+    /**
+     * {@code new BigDecimal(Double.toString(n)).setScale(2, RoundingMode.HALF_UP).doubleValue()}.
+     * <p>
+     * With {@code a = floor(n * 100)} the decimal {@code Double.toString(n)} reaches the midpoint
+     * {@code a.5} hundredths exactly when {@code n} is at least the double nearest to that midpoint,
+     * so one comparison against {@code (10a + 5) / 1000.0} decides the direction. An {@code a} that is
+     * off by one because {@code n * 100} was rounded still lands on the right hundredth.
+     */
+    public static double roundToHundreds(double n) {
+        if (!(Math.abs(n) < MAX_FAST_ROUNDING)) {
+            return new BigDecimal(Double.toString(n)).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        }
+        if (n < 0) {
+            // HALF_UP rounds halves away from zero, and BigDecimal has no negative zero
+            double rounded = roundToHundreds(-n);
+            return rounded == 0 ? 0d : -rounded;
+        }
+        long a = (long) Math.floor(n * 100);
+        return n >= (a * 10 + 5) / 1000.0 ? (a + 1) / 100.0 : a / 100.0;
+    }
+
+    /**
+     * Instants at which each year starts in one zone, from java.time and therefore with its DST rules.
+     */
+    private static final class Years {
+        private final ZoneId zone;
+        private final long[] starts;
+
+        Years(ZoneId zone) {
+            this.zone = zone;
+            starts = new long[LAST_YEAR - FIRST_YEAR + 2];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = LocalDate.of(FIRST_YEAR + i, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+            }
+        }
+
+        int year(long epochMillis) {
+            if (epochMillis < starts[0] || epochMillis >= starts[starts.length - 1]) {
+                return Instant.ofEpochMilli(epochMillis).atZone(zone).getYear();
+            }
+            int i = (int) Math.min((epochMillis - starts[0]) / AVERAGE_YEAR_MILLIS, starts.length - 2);
+            while (starts[i] > epochMillis) {
+                i--;
+            }
+            while (starts[i + 1] <= epochMillis) {
+                i++;
+            }
+            return FIRST_YEAR + i;
+        }
+    }
+}
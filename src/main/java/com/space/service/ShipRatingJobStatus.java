@@ -0,0 +1,93 @@
+package com.space.service;
+
+/**
+ * Point-in-time progress of a rating recompute. {@code progress} and {@code etaMillis} count the id chunks
+ * of the current run, including the part a resumed run skips; {@code etaMillis} is {@code null} until the
+ * first chunk is done.
+ */
+public class ShipRatingJobStatus {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final int referenceYear;
+    private final State state;
+    private final long nextId;
+    private final long lastId;
+    private final double progress;
+    private final long scanned;
+    private final long updated;
+    private final double rowsPerSecond;
+    private final long elapsedMillis;
+    private final Long etaMillis;
+    private final String failure;
+
+    public ShipRatingJobStatus(int referenceYear, State state, long nextId, long lastId, double progress, long scanned,
+                               long updated, double rowsPerSecond, long elapsedMillis, Long etaMillis, String failure) {
+        this.referenceYear = referenceYear;
+        this.state = state;
+        this.nextId = nextId;
+        this.lastId = lastId;
+        this.progress = progress;
+        this.scanned = scanned;
+        this.updated = updated;
+        this.rowsPerSecond = rowsPerSecond;
+        this.elapsedMillis = elapsedMillis;
+        this.etaMillis = etaMillis;
+        this.failure = failure;
+    }
+
+    public int getReferenceYear() {
+        return referenceYear;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Every ship with a lower id is done.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Between 0 and 1.
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    /**
+     * Ratings that changed, over all runs against this reference year.
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Long getEtaMillis() {
+        return etaMillis;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+}
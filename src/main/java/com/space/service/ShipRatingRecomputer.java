@@ -0,0 +1,313 @@
+package com.space.service;
+
+import com.space.exception.ShipBadRequestException;
+import com.space.model.Ship;
+import com.space.model.ShipRatingCheckpoint;
+import com.space.repository.ShipRatingCheckpointRepository;
+import com.space.repository.ShipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the reference year ratings are computed against and brings the stored ratings in line with it.
+ * <p>
+ * The ship table is cut into id ranges of {@code cosmoport.rating.chunk-size} that
+ * {@code cosmoport.rating.workers} threads take in turn. Each chunk is one transaction that reads the
+ * ships and writes the changed ratings back as a JDBC batch; the workers together process at most
+ * {@code cosmoport.rating.max-rows-per-second} rows so that live traffic keeps its connections and locks.
+ * A {@link ShipRatingCheckpoint} keeps the id below which every chunk is done, so a run that failed or
+ * was cut short by a shutdown resumes from there.
+ * <p>
+ * {@code cosmoport.rating.reference-year} is applied at startup; if the stored ratings were computed
+ * against another year, or a run against it is unfinished, the recompute starts on its own.
+ */
+@Component
+public class ShipRatingRecomputer implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipRatingRecomputer.class);
+    private static final long LOG_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    @Autowired
+    private ShipRepository shipRepository;
+    @Autowired
+    private ShipRatingCheckpointRepository checkpointRepository;
+    @Autowired
+    private List<ShipChangeListener> shipChangeListeners;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int configuredYear;
+    private volatile int referenceYear;
+    private final int workers;
+    private int chunkSize;
+    private int maxRowsPerSecond;
+    // runs go one after another
+    private final ExecutorService jobs = Executors.newSingleThreadExecutor();
+    private volatile ShipRatingJobStatus status;
+
+    @Autowired
+    public ShipRatingRecomputer(PlatformTransactionManager transactionManager,
+                                @Value("${cosmoport.rating.reference-year:3019}") int referenceYear,
+                                @Value("${cosmoport.rating.workers:2}") int workers,
+                                @Value("${cosmoport.rating.chunk-size:1000}") int chunkSize,
+                                @Value("${cosmoport.rating.max-rows-per-second:5000}") int maxRowsPerSecond) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.configuredYear = referenceYear;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        checkReferenceYear(referenceYear);
+        this.referenceYear = referenceYear;
+    }
+
+    /**
+     * The year new and changed ships are rated against: {@code cosmoport.rating.reference-year}, or the
+     * year of the last run started since.
+     */
+    public int getReferenceYear() {
+        return referenceYear;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            int storedYear = checkpointRepository.findFirstByCompletedAtNotNullOrderByCompletedAtDesc()
+                    .map(ShipRatingCheckpoint::getReferenceYear)
+                    .orElse(ShipRules.CURRENT_YEAR);
+            Optional<ShipRatingCheckpoint> current = checkpointRepository.findById(configuredYear);
+            if (storedYear != configuredYear || (current.isPresent() && current.get().getCompletedAt() == null)) {
+                log.info("Ratings are stored against " + storedYear + ", recomputing them against " + configuredYear);
+                start(configuredYear);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check whether the ratings need a recompute", e);
+        }
+    }
+
+    /**
+     * Switches to {@code referenceYear} and queues the recompute; follow it with {@link #getStatus()}.
+     * Starting the year of an unfinished run resumes that run.
+     */
+    public synchronized ShipRatingJobStatus start(int referenceYear) {
+        if (status != null && status.getState() == ShipRatingJobStatus.State.RUNNING) {
+            throw new ShipBadRequestException("Ratings are already being recomputed against " + status.getReferenceYear());
+        }
+        if (referenceYear < ShipRules.CURRENT_YEAR) {
+            throw new ShipBadRequestException("referenceYear must not be before " + ShipRules.CURRENT_YEAR);
+        }
+        status = new ShipRatingJobStatus(referenceYear, ShipRatingJobStatus.State.RUNNING, 0, 0, 0, 0, 0, 0, 0, null, null);
+        jobs.submit(() -> run(referenceYear));
+        return status;
+    }
+
+    /**
+     * Recomputes on the calling thread. Failures are reported in the returned status.
+     */
+    public ShipRatingJobStatus run(int referenceYear) {
+        Run run = null;
+        try {
+            checkReferenceYear(referenceYear);
+            // ships written from now on are rated against the new year, so the run may stop at today's last id
+            this.referenceYear = referenceYear;
+            run = new Run(referenceYear);
+            run.execute();
+            return run.report(ShipRatingJobStatus.State.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Recompute of ratings against " + referenceYear + " failed", e);
+            if (run == null) {
+                status = new ShipRatingJobStatus(referenceYear, ShipRatingJobStatus.State.FAILED, 0, 0, 0, 0, 0, 0, 0, null, e.toString());
+                return status;
+            }
+            return run.report(ShipRatingJobStatus.State.FAILED, e.toString());
+        }
+    }
+
+    /**
+     * The current or last run, {@code null} if there was none since startup.
+     */
+    public ShipRatingJobStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public void destroy() {
+        jobs.shutdownNow();
+    }
+
+    private static void checkReferenceYear(int referenceYear) {
+        // the newest ships would otherwise get a zero or negative age
+        if (referenceYear < ShipRules.CURRENT_YEAR) {
+            throw new IllegalArgumentException("reference year must not be before " + ShipRules.CURRENT_YEAR);
+        }
+    }
+
+    private final class Run {
+        final int referenceYear;
+        final long firstId;
+        final long lastId;
+        final long chunkCount;
+        final AtomicLong nextChunk = new AtomicLong();
+        final AtomicLong scanned = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final long startedAt = System.currentTimeMillis();
+        // guarded by this: chunks done above the watermark, the checkpoint and the throttle
+        final TreeSet<Long> done = new TreeSet<>();
+        long watermark;
+        ShipRatingCheckpoint checkpoint;
+        long nextSlotNanos = System.nanoTime();
+        long lastLog = startedAt;
+
+        Run(int referenceYear) {
+            this.referenceYear = referenceYear;
+            ShipRatingCheckpoint saved = checkpointRepository.findById(referenceYear).orElse(null);
+            if (saved == null || saved.getCompletedAt() != null) {
+                Long maxId = shipRepository.findMaxId();
+                saved = checkpointRepository.save(new ShipRatingCheckpoint(referenceYear, 0L, maxId == null ? 0L : maxId, 0L, null));
+            }
+            checkpoint = saved;
+            firstId = saved.getNextId();
+            lastId = saved.getLastId();
+            chunkCount = Math.max(0, (lastId - firstId + chunkSize) / chunkSize);
+        }
+
+        void execute() throws Exception {
+            report(ShipRatingJobStatus.State.RUNNING, null);
+            ExecutorService pool = Executors.newFixedThreadPool(workers);
+            try {
+                for (int i = 0; i < workers; i++) {
+                    pool.submit(this::work);
+                }
+                pool.shutdown();
+                while (!pool.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                    ShipRatingJobStatus current = report(ShipRatingJobStatus.State.RUNNING, null);
+                    if (System.currentTimeMillis() - lastLog >= LOG_INTERVAL_MILLIS) {
+                        lastLog = System.currentTimeMillis();
+                        log.info(String.format("Recomputing ratings against %d: %.1f%%, %d updated, %.0f rows/s, %d s left",
+                                referenceYear, current.getProgress() * 100, current.getUpdated(), current.getRowsPerSecond(),
+                                current.getEtaMillis() == null ? -1 : current.getEtaMillis() / 1000));
+                    }
+                }
+                Throwable thrown = failure.get();
+                if (thrown != null) {
+                    throw new IllegalStateException(thrown.getMessage(), thrown);
+                }
+                synchronized (this) {
+                    checkpoint = checkpointRepository.save(new ShipRatingCheckpoint(referenceYear, lastId + 1,
+                            lastId, checkpoint.getUpdated(), System.currentTimeMillis()));
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        private void work() {
+            try {
+                for (long chunk = nextChunk.getAndIncrement(); chunk < chunkCount; chunk = nextChunk.getAndIncrement()) {
+                    if (failure.get() != null || Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    long from = firstId + chunk * chunkSize;
+                    int rows = recompute(from, Math.min(from + chunkSize, lastId + 1), chunk);
+                    throttle(rows);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        /**
+         * Recomputes the ships with {@code from <= id < to} and returns how many there were.
+         */
+        private int recompute(long from, long to, long chunk) {
+            Map<Long, Ship> before = new HashMap<>();
+            List<Ship> stale = new ArrayList<>();
+            List<Ship> written = transactionTemplate.execute(status -> {
+                for (Ship ship : shipRepository.findIdRange(from, to)) {
+                    before.put(ship.getId(), ship);
+                    if (ship.getSpeed() == null || ship.getUsed() == null || ship.getProdDate() == null) {
+                        continue;
+                    }
+                    Double rating = ShipRules.calculateRating(ship, referenceYear);
+                    if (!rating.equals(ship.getRating())) {
+                        Ship after = new Ship(ship);
+                        after.setRating(rating);
+                        stale.add(after);
+                    }
+                }
+                return shipRepository.updateRatings(stale);
+            });
+            scanned.addAndGet(before.size());
+            for (Ship after : written) {
+                // current values on both sides: the listeners see the rating change and no stale name or planet
+                Ship previous = new Ship(after);
+                previous.setRating(before.get(after.getId()).getRating());
+                shipChangeListeners.forEach(l -> l.shipChanged(previous, after));
+            }
+            completed(chunk, written.size());
+            return before.size();
+        }
+
+        private synchronized void completed(long chunk, int updated) {
+            done.add(chunk);
+            while (done.remove(watermark)) {
+                watermark++;
+            }
+            long nextId = Math.min(firstId + watermark * chunkSize, lastId + 1);
+            // a crash before the watermark passes a done chunk only repeats that chunk, which is harmless
+            checkpoint = checkpointRepository.save(new ShipRatingCheckpoint(referenceYear, nextId, lastId,
+                    checkpoint.getUpdated() + updated, null));
+        }
+
+        /**
+         * Spaces the chunks of all workers so that they add up to at most {@code maxRowsPerSecond}.
+         */
+        private void throttle(int rows) throws InterruptedException {
+            if (maxRowsPerSecond <= 0 || rows == 0) {
+                return;
+            }
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                nextSlotNanos = Math.max(now, nextSlotNanos) + rows * TimeUnit.SECONDS.toNanos(1) / maxRowsPerSecond;
+                wait = nextSlotNanos - now;
+            }
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+
+        synchronized ShipRatingJobStatus report(ShipRatingJobStatus.State state, String failureMessage) {
+            long elapsed = System.currentTimeMillis() - startedAt;
+            long chunksDone = state == ShipRatingJobStatus.State.COMPLETED ? chunkCount : watermark + done.size();
+            double progress = chunkCount == 0 ? 1 : (double) chunksDone / chunkCount;
+            Long eta = null;
+            if (state == ShipRatingJobStatus.State.COMPLETED) {
+                eta = 0L;
+            } else if (state == ShipRatingJobStatus.State.RUNNING && chunksDone > 0) {
+                eta = elapsed * (chunkCount - chunksDone) / chunksDone;
+            }
+            status = new ShipRatingJobStatus(referenceYear, state, checkpoint.getNextId(), lastId, progress,
+                    scanned.get(), checkpoint.getUpdated(), elapsed == 0 ? 0 : scanned.get() * 1000d / elapsed,
+                    elapsed, eta, failureMessage);
+            return status;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.space.service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Reads one line of a /rest/ships/export file (NDJSON or CSV) back into a ship. Instances are
+ * immutable and shared by the parser threads of {@link ShipImporter}.
+ */
+final class ShipRecordParser {
+
+    // the field-based view of the REST API, see WebConfig
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final boolean csv;
+    // CSV column positions, -1 when the header lacks the column
+    private final int name;
+    private final int planet;
+    private final int shipType;
+    private final int prodDate;
+    private final int isUsed;
+    private final int speed;
+    private final int crewSize;
+
+    private ShipRecordParser(boolean csv, List<String> header) {
+        this.csv = csv;
+        this.name = header.indexOf("name");
+        this.planet = header.indexOf("planet");
+        this.shipType = header.indexOf("shipType");
+        this.prodDate = header.indexOf("prodDate");
+        this.isUsed = header.indexOf("isUsed");
+        this.speed = header.indexOf("speed");
+        this.crewSize = header.indexOf("crewSize");
+    }
+
+    static ShipRecordParser ndjson() {
+        return new ShipRecordParser(false, new ArrayList<>());
+    }
+
+    static ShipRecordParser csv(String header) {
+        return new ShipRecordParser(true, splitCsv(header));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the line is not a well-formed record
+     */
+    Ship parse(String line) {
+        if (!csv) {
+            Ship ship;
+            try {
+                ship = MAPPER.readValue(line, Ship.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+            }
+            if (ship == null) {
+                throw new IllegalArgumentException("record is null");
+            }
+            return ship;
+        }
+        List<String> fields = splitCsv(line);
+        Ship ship = new Ship();
+        ship.setName(text(fields, name));
+        ship.setPlanet(text(fields, planet));
+        String value = text(fields, shipType);
+        ship.setShipType(value == null ? null : ShipType.valueOf(value));
+        value = text(fields, prodDate);
+        ship.setProdDate(value == null ? null : new Date(Long.parseLong(value)));
+        value = text(fields, isUsed);
+        if (value != null && !value.equals("true") && !value.equals("false")) {
+            throw new IllegalArgumentException("isUsed must be true or false");
+        }
+        ship.setUsed(value == null ? null : Boolean.valueOf(value));
+        value = text(fields, speed);
+        ship.setSpeed(value == null ? null : Double.valueOf(value));
+        value = text(fields, crewSize);
+        ship.setCrewSize(value == null ? null : Integer.valueOf(value));
+        return ship;
+    }
+
+    private static String text(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column);
+        return value.isEmpty() || value.equals("null") ? null : value;
+    }
+
+    /**
+     * Splits an RFC 4180 line; quoted fields may contain commas and doubled quotes but no line breaks.
+     */
+    static List<String> splitCsv(String line) {
+        if (line.indexOf('"') < 0) {
+            return Arrays.asList(line.split(",", -1));
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,58 @@
+package com.space.service;
+
+import com.space.model.Ship;
+
+import java.util.Date;
+
+/**
+ * Validation and rating rules for new ships, shared by {@link ShipServiceImpl} and {@link ShipImporter}.
+ */
+public final class ShipRules {
+
+    public static final int CURRENT_YEAR = 3019;
+
+    private ShipRules() {
+    }
+
+    /**
+     * The first rule of POST /rest/ships that {@code ship} breaks, or {@code null} if it may be created.
+     */
+    public static String validationError(Ship ship) {
+        if (ship.getName() == null || ship.getName().isEmpty() || ship.getName().length() > 50) {
+            return "name must be 1 to 50 characters long";
+        } else if (ship.getPlanet() == null || ship.getPlanet().isEmpty() || ship.getPlanet().length() > 50) {
+            return "planet must be 1 to 50 characters long";
+        } else if (ship.getShipType() == null) {
+            return "shipType is required";
+        } else if (ship.getProdDate() == null || !isShipYearInBorders(ship.getProdDate())) {
+            return "prodDate must be within the years 2800 to 3019";
+        } else if (ship.getSpeed() == null
+                || ShipRating.roundToHundreds(ship.getSpeed()) < 0.01
+                || ShipRating.roundToHundreds(ship.getSpeed()) > 0.99) {
+            return "speed must be between 0.01 and 0.99";
+        } else if (ship.getCrewSize() == null || ship.getCrewSize() < 1 || ship.getCrewSize() > 9999) {
+            return "crewSize must be between 1 and 9999";
+        }
+        return null;
+    }
+
+    /**
+     * Fills in the defaults and derived values of a valid new ship, rated against {@code referenceYear}.
+     */
+    public static void prepareForInsert(Ship ship, int referenceYear) {
+        if (ship.getUsed() == null) {
+            ship.setUsed(false);
+        }
+        ship.setSpeed(ShipRating.roundToHundreds(ship.getSpeed()));
+        ship.setRating(calculateRating(ship, referenceYear));
+    }
+
+    public static Double calculateRating(Ship ship, int referenceYear) {
+        return ShipRating.rating(ship.getSpeed(), ship.getUsed(), ShipRating.year(ship.getProdDate().getTime()), referenceYear);
+    }
+
+    private static boolean isShipYearInBorders(Date prodDate) {
+        int shipYear = ShipRating.year(prodDate.getTime());
+        return shipYear >= 2800 && shipYear <= CURRENT_YEAR && prodDate.getTime() >= 0;
+    }
+}
@@ -3,12 +3,19 @@ package com.space.service;
 
 import com.space.controller.ShipOrder;
 import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipPage;
+import com.space.model.ShipSuggestion;
 import com.space.model.ShipType;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ShipService {
-    List<Ship> findAllShips(
+    /**
+     * One page of ships without the total: {@link ShipPage#getCount()} is {@code null}.
+     */
+    ShipPage findAllShips(
             String name,
             String planet,
             ShipType shipType,
@@ -23,15 +30,49 @@ public interface ShipService {
             Double maxRating,
             ShipOrder order,
             Integer pageNumber,
-            Integer pageSize
+            Integer pageSize,
+            String cursor
+    );
+
+    ShipPage findShipsPage(
+            String name,
+            String planet,
+            ShipType shipType,
+            Long after,
+            Long before,
+            Boolean isUsed,
+            Double minSpeed,
+            Double maxSpeed,
+            Integer minCrewSize,
+            Integer maxCrewSize,
+            Double minRating,
+            Double maxRating,
+            ShipOrder order,
+            Integer pageNumber,
+            Integer pageSize,
+            String cursor
     );
 
     Ship findShipByID(Long id);
 
     Integer findNumberOfShips(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating);
 
+    /**
+     * Hands every ship matching the filters, in {@code order}, to {@code consumer} without loading
+     * them all at once.
+     */
+    void exportShips(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order, Consumer<Ship> consumer);
+
+    List<ShipSuggestion> suggest(String field, String prefix, Integer limit);
+
     Ship createShip(Ship ship);
 
+    /**
+     * Validates, rates and inserts the ships in JDBC batches. Invalid items are reported in the
+     * result and skipped; the others are still created.
+     */
+    ShipBatchResult createShips(List<Ship> ships);
+
     void deleteShip(Long id);
 
     Ship updateShip(Long id, Ship ship);
@@ -4,27 +4,51 @@ import com.space.controller.ShipOrder;
 import com.space.exception.ShipBadRequestException;
 import com.space.exception.ShipNotFoundItemException;
 import com.space.model.Ship;
+import com.space.model.ShipBatchError;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipPage;
+import com.space.model.ShipSuggestion;
 import com.space.model.ShipType;
+import com.space.repository.ShipCursor;
+import com.space.repository.ShipFilter;
 import com.space.repository.ShipRepository;
+import com.space.repository.ShipSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.ZoneId;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ShipServiceImpl implements ShipService {
 
     @Autowired
     private ShipRepository shipRepository;
-    public static final int CURRENT_YEAR = 3019;
+    @Autowired
+    private ShipTextIndex shipTextIndex;
+    @Autowired
+    private ShipSuggestIndex shipSuggestIndex;
+    @Autowired
+    private ShipIdAllocator shipIdAllocator;
+    @Autowired
+    private List<ShipChangeListener> shipChangeListeners;
+    @Autowired
+    private ShipMetrics shipMetrics;
+    @Autowired
+    private ShipRatingRecomputer shipRatingRecomputer;
+    @Value("${cosmoport.batch.max-size:10000}")
+    private int maxBatchSize;
+    private static final int MAX_SUGGESTIONS = ShipSuggestIndex.MAX_LIMIT;
 
     @Override
-    @Transactional
-    public List<Ship> findAllShips(
+    @Transactional(readOnly = true)
+    public ShipPage findAllShips(
             String name,
             String planet,
             ShipType shipType,
@@ -39,31 +63,142 @@ public class ShipServiceImpl implements ShipService {
             Double maxRating,
             ShipOrder order,
             Integer pageNumber,
-            Integer pageSize
+            Integer pageSize,
+            String cursor
     ) {
-        List<Ship> ships = shipRepository.findAll();
-        ships = filterShipList(ships, name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
-        ships = filterShipsDisplay(ships, order, pageNumber, pageSize);
-        return ships;
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        long start = System.nanoTime();
+        ShipQueryTrace query = ShipTrace.beginQuery(ShipMetrics.Query.LIST, filter, order, pageNumber, pageSize, cursor);
+        Integer returned = null;
+        boolean failed = true;
+        try {
+            List<Ship> ships = findPage(filter, order, pageNumber, pageSize, cursor);
+            returned = ships.size();
+            failed = false;
+            return new ShipPage(ships, null, nextCursor(order, pageSize, ships));
+        } finally {
+            shipMetrics.recordQuery(ShipMetrics.Query.LIST, order, filter, System.nanoTime() - start, failed);
+            ShipTrace.endQuery(query, null, returned, failed);
+        }
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public ShipPage findShipsPage(
+            String name,
+            String planet,
+            ShipType shipType,
+            Long after,
+            Long before,
+            Boolean isUsed,
+            Double minSpeed,
+            Double maxSpeed,
+            Integer minCrewSize,
+            Integer maxCrewSize,
+            Double minRating,
+            Double maxRating,
+            ShipOrder order,
+            Integer pageNumber,
+            Integer pageSize,
+            String cursor
+    ) {
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        long start = System.nanoTime();
+        ShipQueryTrace query = ShipTrace.beginQuery(ShipMetrics.Query.PAGE, filter, order, pageNumber, pageSize, cursor);
+        ShipPage page = null;
+        boolean failed = true;
+        try {
+            page = loadPage(filter, order, pageNumber, pageSize, cursor);
+            failed = false;
+            return page;
+        } finally {
+            shipMetrics.recordQuery(ShipMetrics.Query.PAGE, order, filter, System.nanoTime() - start, failed);
+            ShipTrace.endQuery(query, page == null || page.getCount() == null ? null : page.getCount().longValue(),
+                    page == null ? null : page.getShips().size(), failed);
+        }
+    }
+
+    private ShipPage loadPage(ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize, String cursor) {
+        List<Ship> ships = findPage(filter, order, pageNumber, pageSize, cursor);
+        String nextCursor = nextCursor(order, pageSize, ships);
+        // without a cursor the total is known when the page is neither empty nor full
+        if (cursor == null) {
+            long offset = (long) pageNumber * pageSize;
+            if (!ships.isEmpty() && ships.size() < pageSize) {
+                return new ShipPage(ships, Math.toIntExact(offset + ships.size()), nextCursor);
+            }
+            if (offset == 0 && ships.isEmpty() && pageSize > 0) {
+                return new ShipPage(ships, 0, nextCursor);
+            }
+        }
+        Specification<Ship> specification = specificationFor(filter);
+        long begin = ShipTrace.begin();
+        long count = shipRepository.count(specification);
+        ShipTrace.end(ShipTrace.Phase.COUNT, begin);
+        return new ShipPage(ships, Math.toIntExact(count), nextCursor);
+    }
+
+    /**
+     * The cursor of the page after {@code ships}, or {@code null} when the page is not full and so is the last one.
+     */
+    private static String nextCursor(ShipOrder order, Integer pageSize, List<Ship> ships) {
+        return pageSize > 0 && ships.size() == pageSize
+                ? ShipCursor.after(order, ships.get(ships.size() - 1)).encode()
+                : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Ship findShipByID(Long id) {
         if (id < 1) {
             throw new ShipBadRequestException();
-        } else if (!shipRepository.existsById(id)) {
-            throw new ShipNotFoundItemException();
         }
-        return shipRepository.findById(id).orElse(null);
+        long begin = ShipTrace.begin();
+        Optional<Ship> ship = shipRepository.findById(id);
+        ShipTrace.end(ShipTrace.Phase.DB, begin);
+        return ship.orElseThrow(ShipNotFoundItemException::new);
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public Integer findNumberOfShips(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating) {
-        List<Ship> ships = shipRepository.findAll();
-        ships = filterShipList(ships, name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
-        return ships.size();
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        long start = System.nanoTime();
+        ShipQueryTrace query = ShipTrace.beginQuery(ShipMetrics.Query.COUNT, filter, null, null, null, null);
+        Integer count = null;
+        boolean failed = true;
+        try {
+            Specification<Ship> specification = specificationFor(filter);
+            long begin = ShipTrace.begin();
+            count = Math.toIntExact(shipRepository.count(specification));
+            ShipTrace.end(ShipTrace.Phase.COUNT, begin);
+            failed = false;
+            return count;
+        } finally {
+            shipMetrics.recordQuery(ShipMetrics.Query.COUNT, null, filter, System.nanoTime() - start, failed);
+            ShipTrace.endQuery(query, count == null ? null : count.longValue(), null, failed);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportShips(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order, Consumer<Ship> consumer) {
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating);
+        try (Stream<Ship> ships = shipRepository.stream(specificationFor(filter), ShipSpecifications.byOrder(order))) {
+            ships.forEach(consumer);
+        }
+    }
+
+    @Override
+    public List<ShipSuggestion> suggest(String field, String prefix, Integer limit) {
+        if (prefix == null || limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ShipBadRequestException();
+        }
+        try {
+            return shipSuggestIndex.suggest(field, prefix, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ShipBadRequestException(e.getMessage());
+        }
     }
 
     @Transactional
@@ -74,6 +209,7 @@ public class ShipServiceImpl implements ShipService {
         if (newShip == null || shipUpdate == null) {
              throw new ShipNotFoundItemException();
         }
+        Ship before = new Ship(shipUpdate);
         if (newShip.getName() != null) {
             if (newShip.getName().length() > 50 ||
                     newShip.getName().isEmpty()) {
@@ -92,8 +228,8 @@ public class ShipServiceImpl implements ShipService {
             shipUpdate.setShipType(newShip.getShipType());
         }
         if (newShip.getProdDate() != null) {
-            if (newShip.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() < 2800 ||
-                    newShip.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() > 3019) {
+            int prodYear = ShipRating.year(newShip.getProdDate().getTime());
+            if (prodYear < 2800 || prodYear > 3019) {
                 throw new ShipBadRequestException();
             }
             shipUpdate.setProdDate(newShip.getProdDate());
@@ -116,183 +252,145 @@ public class ShipServiceImpl implements ShipService {
             shipUpdate.setCrewSize(newShip.getCrewSize());
         }
 
-        shipUpdate.setRating(calculateRating(shipUpdate));
-        return shipRepository.save(shipUpdate);
+        shipUpdate.setRating(ShipRules.calculateRating(shipUpdate, shipRatingRecomputer.getReferenceYear()));
+        Ship updated = shipRepository.save(shipUpdate);
+        notifyChanged(before, updated);
+        return updated;
     }
     @Override
     public Ship createShip(Ship ship) {
-        if (
-                ship.getName() == null
-                || ship.getName().length() > 50
-                || ship.getName().isEmpty()
-                || ship.getPlanet() == null
-                || ship.getPlanet().isEmpty()
-                || ship.getPlanet().length() > 50
-                || ship.getShipType() == null
-                || ship.getProdDate() == null
-                || !(isShipYearInBorders(ship.getProdDate()))
-                || ship.getSpeed() == null
-                || roundToHundreds(ship.getSpeed()) < 0.01
-                || roundToHundreds(ship.getSpeed()) > 0.99
-                || ship.getCrewSize() == null
-                || ship.getCrewSize() < 1
-                || ship.getCrewSize() > 9999
-        ) {
+        if (ShipRules.validationError(ship) != null) {
             return null;
-        } else if (ship.getUsed() == null) {
-            ship.setUsed(false);
         }
-        ship.setSpeed(roundToHundreds(ship.getSpeed()));
-        ship.setRating(calculateRating(ship));
-        return shipRepository.save(ship);
+        ShipRules.prepareForInsert(ship, shipRatingRecomputer.getReferenceYear());
+        List<Ship> single = Collections.singletonList(ship);
+        shipIdAllocator.assign(single);
+        // insertAll commits on its own, before notifyChanged
+        shipTextIndex.writeStarted(single);
+        try {
+            Ship created = shipRepository.insertAll(single).get(0);
+            notifyChanged(null, created);
+            return created;
+        } finally {
+            shipTextIndex.writeFinished(single);
+        }
     }
 
     @Override
-    public void deleteShip(Long id) {
-//        Ship ship = findShipByID(id);
-        if (id < 1) {
-            throw new ShipBadRequestException();
-        }
-         if (!shipRepository.existsById(id)) {
-            throw new ShipNotFoundItemException();
+    public ShipBatchResult createShips(List<Ship> ships) {
+        if (ships == null || ships.size() > maxBatchSize) {
+            throw new ShipBadRequestException("A batch holds at most " + maxBatchSize + " ships");
         }
-        shipRepository.deleteById(id);
-    }
-
-    private Double calculateRating(Ship ship) {
-        double speed = ship.getSpeed();
-        double coefficientUsed = ship.getUsed() ? 0.5d : 1.0d;
-        int currentYear = 3019;
-        int productionDate = ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear();
-        double rating = (80 * speed * coefficientUsed) / (double) (currentYear - productionDate + 1);
-        return roundToHundreds(rating);
-    }
-
-
-
-
-    private boolean isShipYearInBorders(Date prodDate) {
-        Calendar calDate = Calendar.getInstance();
-        calDate.setTime(prodDate);
-        int shipYear = calDate.get(Calendar.YEAR);
-        return shipYear >= 2800 && shipYear <= 3019 && prodDate.getTime() >= 0;
-    }
-
-    private List<Ship> filterShipsDisplay(List<Ship>ships, ShipOrder order, Integer pageNumber, Integer pageSize) {
-        ships.sort(getOrderComparator(order));
-//       return ships.subList(pageNumber * pageSize, ships.size() - 1)
-//               .subList(0, pageSize);
-        return ships.stream()
-                .skip(pageNumber * pageSize)
-                .limit(pageSize)
-                .collect(Collectors.toList());
-
-    }
-
-    private Comparator<Ship> getOrderComparator(ShipOrder order) {
-        if (order == null) {
-            order = ShipOrder.ID;
+        int referenceYear = shipRatingRecomputer.getReferenceYear();
+        List<Ship> valid = new ArrayList<>();
+        List<ShipBatchError> errors = new ArrayList<>();
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            String error = ship == null ? "ship is missing" : ShipRules.validationError(ship);
+            if (error != null) {
+                errors.add(new ShipBatchError(i, error));
+            } else {
+                ShipRules.prepareForInsert(ship, referenceYear);
+                valid.add(ship);
+            }
         }
-        String fieldName = order.getFieldName();
-        Comparator<Ship> shipComparator = null;
-        switch (fieldName) {
-            case "id":
-                shipComparator = Comparator.comparing(Ship::getId);
-                break;
-            case "speed":
-                shipComparator = Comparator.comparing(Ship::getSpeed);
-                break;
-            case "prodDate":
-                shipComparator = Comparator.comparing(Ship::getProdDate);
-                break;
-            case "rating":
-                shipComparator = Comparator.comparing(Ship::getRating);
-                break;
+        if (!valid.isEmpty()) {
+            shipIdAllocator.assign(valid);
+            shipTextIndex.writeStarted(valid);
+            try {
+                shipRepository.insertAll(valid);
+                valid.forEach(ship -> notifyChanged(null, ship));
+            } finally {
+                shipTextIndex.writeFinished(valid);
+            }
         }
-        return shipComparator;
-    }
-
-    private  Double roundToHundreds(double n) {
-        BigDecimal instance = new BigDecimal(Double.toString(n));
-        instance = instance.setScale(2, RoundingMode.HALF_UP);
-        return instance.doubleValue();
+        return new ShipBatchResult(valid, errors);
     }
 
-    private List<Ship> filterShipList(List<Ship> ships, String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
-                                      Integer maxCrewSize, Double minRating, Double maxRating) {
-
-        if (name != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getName().contains(name))
-                    .collect(Collectors.toList());
-        }
-
-        if (planet != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getPlanet().contains(planet))
-                    .collect(Collectors.toList());
-        }
-
-        if (shipType != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getShipType().equals(shipType))
-                    .collect(Collectors.toList());
-        }
-
-        if (after != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getProdDate().after(new Date(after)))
-                    .collect(Collectors.toList());
-        }
-
-        if (before != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getProdDate().before(new Date(before)))
-                    .collect(Collectors.toList());
-        }
-
-        if (isUsed != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getUsed() == isUsed)
-                    .collect(Collectors.toList());
+    @Override
+    @Transactional
+    public void deleteShip(Long id) {
+        if (id < 1) {
+            throw new ShipBadRequestException();
         }
+        Ship ship = shipRepository.findById(id).orElseThrow(ShipNotFoundItemException::new);
+        shipRepository.delete(ship);
+        notifyChanged(ship, null);
+    }
 
-        if (minSpeed != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getSpeed() >= minSpeed)
-                    .collect(Collectors.toList());
+    private List<Ship> findPage(ShipFilter filter, ShipOrder order, Integer pageNumber, Integer pageSize, String cursor) {
+        if (pageNumber < 0 || pageSize < 0) {
+            throw new ShipBadRequestException();
+        } else if (pageSize == 0) {
+            return new ArrayList<>();
         }
-
-        if (maxSpeed != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getSpeed() <= maxSpeed)
-                    .collect(Collectors.toList());
+        Specification<Ship> specification = specificationFor(filter);
+        if (cursor == null) {
+            PageRequest page = PageRequest.of(pageNumber, pageSize, ShipSpecifications.byOrder(order));
+            long begin = ShipTrace.begin();
+            List<Ship> ships = shipRepository.findPage(specification, page);
+            ShipTrace.end(ShipTrace.Phase.DB, begin);
+            return ships;
         }
-
-        if (minCrewSize != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getCrewSize() >= minCrewSize)
-                    .collect(Collectors.toList());
+        // keyset mode: seek past the cursor instead of skipping pageNumber * pageSize rows
+        ShipCursor position;
+        try {
+            position = ShipCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ShipBadRequestException("Malformed cursor");
         }
-
-        if (maxCrewSize != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getCrewSize() <= maxCrewSize)
-                    .collect(Collectors.toList());
+        ShipOrder effectiveOrder = order == null ? ShipOrder.ID : order;
+        if (position.getOrder() != effectiveOrder) {
+            throw new ShipBadRequestException("Cursor does not match order " + effectiveOrder);
         }
+        PageRequest page = PageRequest.of(0, pageSize, ShipSpecifications.byOrder(order));
+        long begin = ShipTrace.begin();
+        List<Ship> ships = shipRepository.findPage(specification.and(ShipSpecifications.after(position)), page);
+        ShipTrace.end(ShipTrace.Phase.DB, begin);
+        return ships;
+    }
 
-        if (minRating != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getRating() >= minRating)
-                    .collect(Collectors.toList());
-        }
+    /**
+     * The filter's WHERE clause, narrowed to the trigram index candidates when name or planet allow it.
+     */
+    private Specification<Ship> specificationFor(ShipFilter filter) {
+        Specification<Ship> specification = ShipSpecifications.byFilter(filter);
+        long begin = ShipTrace.begin();
+        Set<Long> candidates = shipTextIndex.candidates(filter.getName(), filter.getPlanet());
+        ShipTrace.end(ShipTrace.Phase.INDEX, begin);
+        return candidates == null ? specification : specification.and(ShipSpecifications.idIn(candidates));
+    }
 
-        if (maxRating != null) {
-            ships = ships.stream()
-                    .filter(s -> s.getRating() <= maxRating)
-                    .collect(Collectors.toList());
+    /**
+     * Tells the {@link ShipChangeListener}s about a write once it is committed. Until then the text index
+     * adds the written row to its candidates, so queries do not miss it once committed.
+     */
+    private void notifyChanged(Ship before, Ship after) {
+        Ship beforeSnapshot = before == null ? null : new Ship(before);
+        Ship afterSnapshot = after == null ? null : new Ship(after);
+        Runnable notification = () -> shipChangeListeners.forEach(l -> l.shipChanged(beforeSnapshot, afterSnapshot));
+        List<Ship> written = afterSnapshot == null ? Collections.emptyList() : Collections.singletonList(afterSnapshot);
+        shipTextIndex.writeStarted(written);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            notification.run();
+                        }
+                    } finally {
+                        shipTextIndex.writeFinished(written);
+                    }
+                }
+            });
+        } else {
+            try {
+                notification.run();
+            } finally {
+                shipTextIndex.writeFinished(written);
+            }
         }
-        return ships;
     }
 
 }
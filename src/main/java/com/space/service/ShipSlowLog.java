@@ -0,0 +1,75 @@
+package com.space.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The last requests that took at least {@code cosmoport.slow-log.threshold-ms}, in a ring buffer of
+ * {@code cosmoport.slow-log.capacity} entries. Grouping them by the filters of their queries shows
+ * which combinations need an index or a longer stay in the query cache.
+ */
+@Component
+public class ShipSlowLog {
+
+    private long thresholdMillis;
+    private final ShipSlowRequest[] entries;
+    // the slot the next entry goes into
+    private int next;
+    private long recorded;
+
+    public ShipSlowLog(@Value("${cosmoport.slow-log.threshold-ms:-1}") long thresholdMillis,
+                       @Value("${cosmoport.slow-log.capacity:100}") int capacity) {
+        this.thresholdMillis = thresholdMillis;
+        this.entries = new ShipSlowRequest[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Whether requests need tracing for this log; a negative threshold turns it off.
+     */
+    public boolean isEnabled() {
+        return thresholdMillis >= 0;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public boolean isSlow(double elapsedMillis) {
+        return isEnabled() && elapsedMillis >= thresholdMillis;
+    }
+
+    public synchronized void record(ShipSlowRequest request) {
+        entries[next] = request;
+        next = (next + 1) % entries.length;
+        recorded++;
+    }
+
+    /**
+     * The kept requests, newest first.
+     */
+    public synchronized List<ShipSlowRequest> getEntries() {
+        int size = (int) Math.min(recorded, entries.length);
+        List<ShipSlowRequest> newestFirst = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            newestFirst.add(entries[(next - i + entries.length) % entries.length]);
+        }
+        return newestFirst;
+    }
+
+    /**
+     * How many requests were slow since the start, including those the buffer no longer holds.
+     */
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+        recorded = 0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.space.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request {@link ShipSlowLog} kept: what was asked, how long each phase took, and the ship queries
+ * and SQL that answered it.
+ */
+public class ShipSlowRequest {
+    private final long timestamp;
+    private final String method;
+    private final String uri;
+    private final int status;
+    private final double elapsedMillis;
+    private final Map<String, Double> phases;
+    private final List<ShipQueryTrace> queries;
+    private final List<String> sql;
+
+    public ShipSlowRequest(long timestamp, String method, String uri, int status, double elapsedMillis,
+                           Map<String, Double> phases, List<ShipQueryTrace> queries, List<String> sql) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+        this.elapsedMillis = elapsedMillis;
+        this.phases = phases;
+        this.queries = queries;
+        this.sql = sql;
+    }
+
+    /**
+     * When the request completed, in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Map<String, Double> getPhases() {
+        return phases;
+    }
+
+    public List<ShipQueryTrace> getQueries() {
+        return queries;
+    }
+
+    /**
+     * The statements run outside the ship queries, such as the lookup of a single ship.
+     */
+    public List<String> getSql() {
+        return sql;
+    }
+}
@@ -0,0 +1,231 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipSuggestion;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Sorted maps of distinct ship names and planets to the number of ships carrying them, for prefix completion.
+ * All values starting with a prefix form one contiguous range of a sorted map. A short prefix can match
+ * most of the fleet, so the first lookup of a prefix ranks the range once and keeps its
+ * {@link #MAX_LIMIT} most frequent values; later lookups and ship changes only touch that list.
+ * Loaded lazily and kept current through {@link ShipChangeListener}. The index remembers the name and
+ * planet it counted for every id and applies a change as the move from those to the new values, so a
+ * write that the loaded rows already contain and that is notified after the load is not counted twice.
+ */
+@Component
+public class ShipSuggestIndex implements ShipChangeListener {
+
+    public static final String NAME = "name";
+    public static final String PLANET = "planet";
+    /**
+     * The largest {@code limit} a lookup may ask for.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private static final int MAX_CACHED_PREFIXES = 1024;
+    private static final Comparator<ShipSuggestion> BY_COUNT_DESC = Comparator
+            .comparing(ShipSuggestion::getCount, Comparator.reverseOrder())
+            .thenComparing(ShipSuggestion::getValue);
+
+    @Autowired
+    private ShipRepository shipRepository;
+
+    private final Field names = new Field();
+    private final Field planets = new Field();
+    // the name and planet counted for each id
+    private final Map<Long, String[]> counted = new HashMap<>();
+    private boolean built;
+
+    /**
+     * The {@code limit} most frequent values of {@code field} starting with {@code prefix}, most frequent first.
+     *
+     * @throws IllegalArgumentException if {@code field} is neither {@link #NAME} nor {@link #PLANET},
+     *                                  or {@code limit} is above {@link #MAX_LIMIT}
+     */
+    public synchronized List<ShipSuggestion> suggest(String field, String prefix, int limit) {
+        Field values;
+        if (NAME.equals(field)) {
+            values = names;
+        } else if (PLANET.equals(field)) {
+            values = planets;
+        } else {
+            throw new IllegalArgumentException("Unknown field " + field);
+        }
+        if (limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("At most " + MAX_LIMIT + " suggestions");
+        }
+        ensureBuilt();
+        List<ShipSuggestion> top = values.top(prefix).suggestions;
+        return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+    }
+
+    @Override
+    public synchronized void shipChanged(Ship before, Ship after) {
+        if (!built) {
+            return;
+        }
+        if (after != null) {
+            count(after.getId(), after.getName(), after.getPlanet());
+        } else if (before != null) {
+            String[] previous = counted.remove(before.getId());
+            if (previous != null) {
+                names.decrement(previous[0]);
+                planets.decrement(previous[1]);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        built = false;
+        counted.clear();
+        names.clear();
+        planets.clear();
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            for (Object[] row : shipRepository.findAllNamesAndPlanets()) {
+                count((Long) row[0], (String) row[1], (String) row[2]);
+            }
+            built = true;
+        }
+    }
+
+    private void count(Long id, String name, String planet) {
+        String[] previous = counted.put(id, new String[]{name, planet});
+        if (previous == null || !Objects.equals(previous[0], name)) {
+            if (previous != null) {
+                names.decrement(previous[0]);
+            }
+            names.increment(name);
+        }
+        if (previous == null || !Objects.equals(previous[1], planet)) {
+            if (previous != null) {
+                planets.decrement(previous[1]);
+            }
+            planets.increment(planet);
+        }
+    }
+
+    /**
+     * The counts of one field and the ranked lists of its recently looked up prefixes.
+     */
+    private static final class Field {
+        final NavigableMap<String, Integer> counts = new TreeMap<>();
+        final Map<String, Top> tops = new LinkedHashMap<String, Top>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Top> eldest) {
+                return size() > MAX_CACHED_PREFIXES;
+            }
+        };
+
+        Top top(String prefix) {
+            Top top = tops.get(prefix);
+            if (top == null) {
+                List<ShipSuggestion> matches = new ArrayList<>();
+                for (Map.Entry<String, Integer> entry : counts.tailMap(prefix, true).entrySet()) {
+                    if (!entry.getKey().startsWith(prefix)) {
+                        break;
+                    }
+                    matches.add(new ShipSuggestion(entry.getKey(), entry.getValue()));
+                }
+                top = new Top(TopK.smallest(matches, BY_COUNT_DESC, MAX_LIMIT), matches.size() <= MAX_LIMIT);
+                tops.put(prefix, top);
+            }
+            return top;
+        }
+
+        void increment(String value) {
+            if (value != null) {
+                changed(value, counts.merge(value, 1, Integer::sum), true);
+            }
+        }
+
+        void decrement(String value) {
+            if (value != null && counts.containsKey(value)) {
+                Integer count = counts.computeIfPresent(value, (v, c) -> c > 1 ? c - 1 : null);
+                changed(value, count == null ? 0 : count, false);
+            }
+        }
+
+        void clear() {
+            counts.clear();
+            tops.clear();
+        }
+
+        private void changed(String value, int count, boolean increased) {
+            for (int length = 0; length <= value.length(); length++) {
+                String prefix = value.substring(0, length);
+                Top top = tops.get(prefix);
+                if (top != null && !top.update(value, count, increased)) {
+                    tops.remove(prefix);
+                }
+            }
+        }
+    }
+
+    /**
+     * The most frequent values with a prefix, most frequent first; {@code complete} if these are all of them.
+     */
+    private static final class Top {
+        final List<ShipSuggestion> suggestions;
+        boolean complete;
+
+        Top(List<ShipSuggestion> suggestions, boolean complete) {
+            this.suggestions = suggestions;
+            this.complete = complete;
+        }
+
+        /**
+         * Applies the new {@code count} of {@code value}; {@code false} if the list can no longer tell its top.
+         */
+        boolean update(String value, int count, boolean increased) {
+            int index = indexOf(value);
+            if (index < 0 && !increased) {
+                // was below the cut-off and only dropped further
+                return true;
+            }
+            if (index >= 0 && !increased && !complete) {
+                // may now rank below values the list does not hold
+                return false;
+            }
+            if (index >= 0) {
+                suggestions.remove(index);
+            }
+            if (count > 0) {
+                ShipSuggestion suggestion = new ShipSuggestion(value, count);
+                int position = Collections.binarySearch(suggestions, suggestion, BY_COUNT_DESC);
+                suggestions.add(position < 0 ? -position - 1 : position, suggestion);
+            }
+            if (suggestions.size() > MAX_LIMIT) {
+                suggestions.remove(suggestions.size() - 1);
+                complete = false;
+            }
+            return true;
+        }
+
+        private int indexOf(String value) {
+            for (int i = 0; i < suggestions.size(); i++) {
+                if (suggestions.get(i).getValue().equals(value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Trigram inverted index over {@link Ship#getName()} and {@link Ship#getPlanet()}.
+ * A substring of at least three characters can only occur in a ship whose text contains all of its
+ * trigrams, so intersecting their posting lists and verifying the survivors with {@link String#contains}
+ * yields exactly the ids the SQL {@code LIKE '%x%'} would match, without scanning the table. Both are
+ * case-sensitive: init.sql gives name and planet a binary collation.
+ * The index is loaded lazily on first use and then kept current through {@link ShipChangeListener}.
+ * A committed write reaches the index only when its listeners are notified, so writers bracket the
+ * write and the notification with {@link #writeStarted} and {@link #writeFinished}; in between the
+ * ships being written are matched as they will be written and added to the candidates, so a query
+ * does not miss a row that is committed but not yet indexed.
+ */
+@Component
+public class ShipTextIndex implements ShipChangeListener {
+
+    private static final int GRAM_LENGTH = 3;
+    // above this many ids an IN (...) list costs more than it saves
+    private static final int MAX_CANDIDATES = 1000;
+    private static final int NAME = 0;
+    private static final int PLANET = 1;
+
+    @Autowired
+    private ShipRepository shipRepository;
+
+    private final Map<String, Set<Long>> nameGrams = new HashMap<>();
+    private final Map<String, Set<Long>> planetGrams = new HashMap<>();
+    private final Map<Long, String[]> texts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // the ships between writeStarted and writeFinished, as they were when the write started
+    private final Map<Ship, Ship> pendingWrites = new IdentityHashMap<>();
+    private boolean built;
+
+    /**
+     * Ids of the ships whose name contains {@code name} and whose planet contains {@code planet}
+     * ({@code null} meaning no restriction), or {@code null} if the index cannot narrow the search:
+     * neither value is long enough to have a trigram, or too many ships match.
+     */
+    public Set<Long> candidates(String name, String planet) {
+        boolean byName = name != null && name.length() >= GRAM_LENGTH;
+        boolean byPlanet = planet != null && planet.length() >= GRAM_LENGTH;
+        if (!byName && !byPlanet) {
+            return null;
+        }
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            // a reset may have run since ensureBuilt
+            return built ? lookup(name, planet, byName, byPlanet) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Called before writing {@code ships}, with their ids assigned, when the listeners will be told
+     * about them; until the matching {@link #writeFinished}, {@link #candidates} includes those of
+     * them that match.
+     */
+    public void writeStarted(Collection<Ship> ships) {
+        synchronized (pendingWrites) {
+            for (Ship ship : ships) {
+                pendingWrites.put(ship, new Ship(ship));
+            }
+        }
+    }
+
+    /**
+     * Called with the same ships once the write of {@link #writeStarted} is rolled back or its
+     * listeners are notified.
+     */
+    public void writeFinished(Collection<Ship> ships) {
+        synchronized (pendingWrites) {
+            for (Ship ship : ships) {
+                pendingWrites.remove(ship);
+            }
+        }
+    }
+
+    private Set<Long> lookup(String name, String planet, boolean byName, boolean byPlanet) {
+        Set<Long> driver = null;
+        if (byName) {
+            driver = smallestPostingList(nameGrams, name);
+        }
+        if (byPlanet) {
+            Set<Long> planetDriver = smallestPostingList(planetGrams, planet);
+            if (driver == null || planetDriver.size() < driver.size()) {
+                driver = planetDriver;
+            }
+        }
+        Set<Long> result = new HashSet<>();
+        for (Long id : driver) {
+            String[] text = texts.get(id);
+            if (text != null && matches(text[NAME], name) && matches(text[PLANET], planet)) {
+                result.add(id);
+                if (result.size() > MAX_CANDIDATES) {
+                    return null;
+                }
+            }
+        }
+        // read under the read lock: a write that is no longer pending was notified before the lookup
+        synchronized (pendingWrites) {
+            for (Ship ship : pendingWrites.values()) {
+                if (matches(ship.getName(), name) && matches(ship.getPlanet(), planet)) {
+                    result.add(ship.getId());
+                    if (result.size() > MAX_CANDIDATES) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void shipChanged(Ship before, Ship after) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            if (before != null) {
+                remove(before.getId());
+            }
+            if (after != null) {
+                add(after.getId(), after.getName(), after.getPlanet());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reset() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            nameGrams.clear();
+            planetGrams.clear();
+            texts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        lock.readLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                for (Object[] row : shipRepository.findAllNamesAndPlanets()) {
+                    add((Long) row[0], (String) row[1], (String) row[2]);
+                }
+                built = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long id, String name, String planet) {
+        texts.put(id, new String[]{name, planet});
+        forEachGram(name, gram -> nameGrams.computeIfAbsent(gram, g -> new HashSet<>()).add(id));
+        forEachGram(planet, gram -> planetGrams.computeIfAbsent(gram, g -> new HashSet<>()).add(id));
+    }
+
+    private void remove(Long id) {
+        String[] text = texts.remove(id);
+        if (text == null) {
+            return;
+        }
+        forEachGram(text[NAME], gram -> removePosting(nameGrams, gram, id));
+        forEachGram(text[PLANET], gram -> removePosting(planetGrams, gram, id));
+    }
+
+    private static void removePosting(Map<String, Set<Long>> grams, String gram, Long id) {
+        grams.computeIfPresent(gram, (g, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<Long> smallestPostingList(Map<String, Set<Long>> grams, String value) {
+        Set<Long> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            Set<Long> ids = grams.get(value.substring(i, i + GRAM_LENGTH));
+            if (ids == null) {
+                return new HashSet<>();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return smallest;
+    }
+
+    private static boolean matches(String text, String value) {
+        return value == null || (text != null && text.contains(value));
+    }
+
+    private static void forEachGram(String text, Consumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            consumer.accept(text.substring(i, i + GRAM_LENGTH));
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.repository.ShipFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Phase timings, ship queries and SQL of the request handled on this thread, for its Server-Timing
+ * header, the debug block of /rest/ships/page and {@link ShipSlowLog}. A request is only traced when it
+ * {@link #start}s a trace; otherwise the static recording methods cost a thread-local read and record
+ * nothing.
+ */
+public final class ShipTrace {
+
+    public enum Phase {
+        CACHE("cache"), // query cache lookups
+        INDEX("index"), // trigram index candidates of name and planet
+        DB("db"), // the list and page selects
+        COUNT("count"), // the count selects
+        SERIALIZE("serialize"); // Jackson
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    public static final String HEADER = "Server-Timing";
+    // SQL statements kept per request, so that a large batch cannot fill the heap
+    static final int MAX_STATEMENTS = 100;
+
+    private static final ThreadLocal<ShipTrace> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final boolean serverTiming;
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] calls = new int[PHASES.length];
+    private Boolean cacheHit;
+    // created by the first query or statement
+    private List<ShipQueryTrace> queries;
+    private List<String> sql;
+    private ShipQueryTrace query;
+    private int statements;
+
+    private ShipTrace(boolean serverTiming) {
+        this.serverTiming = serverTiming;
+    }
+
+    /**
+     * @param serverTiming whether the response reports the trace in a Server-Timing header
+     */
+    public static ShipTrace start(boolean serverTiming) {
+        ShipTrace trace = new ShipTrace(serverTiming);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The trace of this thread's request, or {@code null} if it is not traced.
+     */
+    public static ShipTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The start of a phase to pass to {@link #end}, or 0 when the request is not traced.
+     */
+    public static long begin() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    public static void end(Phase phase, long begin) {
+        ShipTrace trace = CURRENT.get();
+        if (trace != null && begin != 0) {
+            trace.nanos[phase.ordinal()] += System.nanoTime() - begin;
+            trace.calls[phase.ordinal()]++;
+        }
+    }
+
+    /**
+     * Notes the outcome of the last query cache lookup.
+     */
+    public static void cacheHit(boolean hit) {
+        ShipTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.cacheHit = hit;
+        }
+    }
+
+    /**
+     * Opens the record of a list, page or count query; the SQL run until {@link #endQuery} is
+     * attributed to it. Returns {@code null} when the request is not traced.
+     */
+    public static ShipQueryTrace beginQuery(ShipMetrics.Query kind, ShipFilter filter, ShipOrder order, Integer pageNumber,
+                                            Integer pageSize, String cursor) {
+        ShipTrace trace = CURRENT.get();
+        if (trace == null) {
+            return null;
+        }
+        // a paged query without an order is sorted by id, as ShipQueryCache keys it
+        ShipOrder effective = order == null && pageSize != null ? ShipOrder.ID : order;
+        trace.query = new ShipQueryTrace(kind.name().toLowerCase(Locale.ROOT), effective == null ? null : effective.name(),
+                filter.toParameters(), pageNumber, pageSize, cursor);
+        if (trace.queries == null) {
+            trace.queries = new ArrayList<>();
+        }
+        trace.queries.add(trace.query);
+        return trace.query;
+    }
+
+    public static void endQuery(ShipQueryTrace query, Long rowsMatched, Integer rowsReturned, boolean failed) {
+        if (query != null) {
+            query.finish(rowsMatched, rowsReturned, failed);
+            ShipTrace trace = CURRENT.get();
+            if (trace != null && trace.query == query) {
+                trace.query = null;
+            }
+        }
+    }
+
+    /**
+     * Notes a statement Hibernate is about to prepare, against the open query if there is one.
+     */
+    public static void statement(String statement) {
+        ShipTrace trace = CURRENT.get();
+        if (trace == null || trace.statements++ >= MAX_STATEMENTS) {
+            return;
+        }
+        if (trace.query != null) {
+            trace.query.addSql(statement);
+        } else {
+            if (trace.sql == null) {
+                trace.sql = new ArrayList<>();
+            }
+            trace.sql.add(statement);
+        }
+    }
+
+    public boolean isServerTiming() {
+        return serverTiming;
+    }
+
+    public List<ShipQueryTrace> getQueries() {
+        return queries == null ? Collections.emptyList() : queries;
+    }
+
+    /**
+     * The statements run outside any traced query.
+     */
+    public List<String> getSql() {
+        return sql == null ? Collections.emptyList() : sql;
+    }
+
+    /**
+     * Milliseconds per phase that ran.
+     */
+    public Map<String, Double> phaseMillis() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (Phase phase : PHASES) {
+            if (calls[phase.ordinal()] > 0) {
+                phases.put(phase.getMetricName(), nanos[phase.ordinal()] / 1e6);
+            }
+        }
+        return phases;
+    }
+
+    public double elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    /**
+     * The Server-Timing header value: each phase that ran, then the total so far, in milliseconds.
+     */
+    public String serverTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : PHASES) {
+            if (calls[phase.ordinal()] > 0) {
+                header.append(phase.getMetricName());
+                if (phase == Phase.CACHE && cacheHit != null) {
+                    header.append(";desc=").append(cacheHit ? "hit" : "miss");
+                }
+                header.append(";dur=").append(millis(nanos[phase.ordinal()])).append(", ");
+            }
+        }
+        return header.append("total;dur=").append(millis(System.nanoTime() - startNanos)).toString();
+    }
+
+    /**
+     * The phases so far as a JSON object, for responses that carry their own timing.
+     */
+    public Map<String, Object> toDebug() {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (Phase phase : PHASES) {
+            if (calls[phase.ordinal()] > 0) {
+                Map<String, Object> timing = new LinkedHashMap<>();
+                timing.put("millis", nanos[phase.ordinal()] / 1e6);
+                timing.put("calls", calls[phase.ordinal()]);
+                phases.put(phase.getMetricName(), timing);
+            }
+        }
+        Map<String, Object> debug = new LinkedHashMap<>();
+        if (cacheHit != null) {
+            debug.put("cacheHit", cacheHit);
+        }
+        debug.put("phases", phases);
+        debug.put("queries", getQueries());
+        if (sql != null) {
+            debug.put("sql", sql);
+        }
+        debug.put("elapsedMillis", elapsedMillis());
+        return debug;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,45 @@
+package com.space.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Partial ordering: only the leading {@code k} elements of a collection are kept, in a bounded
+ * max-heap, so selecting them costs O(n log k) instead of the O(n log n) of a full sort.
+ * The comparator must be total (e.g. break ties by id) for the result to be deterministic.
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * The {@code k} smallest elements according to {@code comparator}, in ascending order.
+     */
+    public static <T> List<T> smallest(Collection<? extends T> items, Comparator<? super T> comparator, int k) {
+        if (k <= 0 || items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (k >= items.size()) {
+            List<T> all = new ArrayList<>(items);
+            all.sort(comparator);
+            return all;
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(k + 1, Collections.reverseOrder(comparator));
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (comparator.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        List<T> result = new ArrayList<>(heap);
+        result.sort(comparator);
+        return result;
+    }
+}
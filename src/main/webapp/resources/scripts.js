@@ -1,7 +1,8 @@
 function loadContent(root, suffix, currentPage) {
 
-    let objects = JSON.parse(Get(root + "/rest/ships" + suffix).responseText);
-    let shipsCount = Get(root + "/rest/ships/count" + suffix).responseText;
+    let page = JSON.parse(Get(root + "/rest/ships/page" + suffix).responseText);
+    let objects = page.ships;
+    let shipsCount = page.count;
     document.getElementById("count").innerText = "Ships found: " + shipsCount;
     let table = document.getElementById("mainTable");
     table.innerHTML = "";
@@ -72,6 +73,43 @@ function loadContent(root, suffix, currentPage) {
     window.scrollTo(500, 100);
 }
 
+// per datalist: the pending timer and the request in flight
+let suggestionTimers = {};
+let suggestionRequests = {};
+
+function loadSuggestions(root, field, prefix, listId) {
+    clearTimeout(suggestionTimers[listId]);
+    if (suggestionRequests[listId]) {
+        suggestionRequests[listId].abort();
+    }
+    let list = document.getElementById(listId);
+    if (prefix === "") {
+        list.innerHTML = "";
+        return;
+    }
+    // wait until typing pauses, and do not block the page while the request runs
+    suggestionTimers[listId] = setTimeout(function () {
+        let Httpreq = new XMLHttpRequest();
+        suggestionRequests[listId] = Httpreq;
+        Httpreq.open("GET", root + "/rest/ships/suggest?field=" + field + "&prefix=" + encodeURIComponent(prefix), true);
+        Httpreq.onload = function () {
+            suggestionRequests[listId] = null;
+            if (Httpreq.status !== 200) {
+                return;
+            }
+            let suggestions = JSON.parse(Httpreq.responseText);
+            list.innerHTML = "";
+            for (let i = 0; i < suggestions.length; i++) {
+                let option = document.createElement("option");
+                option.value = suggestions[i].value;
+                option.label = suggestions[i].value + " (" + suggestions[i].count + ")";
+                list.appendChild(option);
+            }
+        };
+        Httpreq.send(null);
+    }, 250);
+}
+
 function Get(requestUrl) {
     let Httpreq = new XMLHttpRequest(); // a new request
     Httpreq.open("GET", requestUrl, false);
@@ -0,0 +1,113 @@
+package com.space.benchmark;
+
+import com.space.config.ConnectionPoolMetrics;
+import com.space.config.PoolStatistics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the prod DataSource modes: a connection per transaction versus the HikariCP pool.
+ * Every operation is what a GET /rest/ships/{id} costs on the JDBC side. The database is an H2 TCP
+ * server so that opening a connection includes a network handshake; point {@code url} at MySQL
+ * (e.g. {@code -p url=jdbc:mysql://localhost:3306/cosmoport?serverTimezone=UTC}) for production numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    @Param({"driverManager", "pooled"})
+    public String mode;
+
+    @Param("")
+    public String url;
+
+    private static final int SHIPS = 1000;
+
+    private Server server;
+    private DataSource dataSource;
+    private ConnectionPoolMetrics metrics;
+
+    @Setup
+    public void setup() throws SQLException {
+        String jdbcUrl = url;
+        if (jdbcUrl.isEmpty()) {
+            server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            jdbcUrl = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:pool-benchmark;DB_CLOSE_DELAY=-1";
+            seed(jdbcUrl);
+        }
+        if (mode.equals("pooled")) {
+            metrics = new ConnectionPoolMetrics();
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(jdbcUrl);
+            config.setUsername("root");
+            config.setPassword("root");
+            config.setMinimumIdle(2);
+            config.setMaximumPoolSize(10);
+            config.setMetricsTrackerFactory(metrics);
+            dataSource = new HikariDataSource(config);
+        } else {
+            dataSource = new DriverManagerDataSource(jdbcUrl, "root", "root");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dataSource instanceof HikariDataSource) {
+            PoolStatistics statistics = metrics.getStatistics();
+            System.out.println();
+            System.out.println("average wait " + statistics.getAverageWaitMillis() + " ms, timeouts " + statistics.getTimeouts());
+            ((HikariDataSource) dataSource).close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public String findShipById() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select name from ship where id = ?")) {
+            statement.setLong(1, 1 + ThreadLocalRandom.current().nextInt(SHIPS));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private static void seed(String jdbcUrl) throws SQLException {
+        try (Connection connection = new DriverManagerDataSource(jdbcUrl, "root", "root").getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists ship (id bigint primary key, name varchar(50))");
+            statement.execute("insert into ship select x, 'Ship ' || x from system_range(1, " + SHIPS + ")");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.space.benchmark;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.repository.ShipFilter;
+import com.space.repository.ShipSpecifications;
+import com.space.service.TopK;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The /rest/ships and /rest/ships/count queries of ShipServiceImpl answered from a list instead of the
+ * database, with the in-memory halves of the query pipeline: {@link ShipFilter#toPredicate()},
+ * {@link #comparator(ShipOrder)} and {@link #page}. The application filters, sorts and pages in SQL;
+ * these exist for the benchmarks that compare against the former in-memory code.
+ */
+final class InMemoryShipRepository {
+
+    private final List<Ship> ships;
+
+    InMemoryShipRepository(List<Ship> ships) {
+        this.ships = ships;
+    }
+
+    List<Ship> findAll(ShipFilter filter) {
+        Predicate<Ship> predicate = filter.toPredicate();
+        List<Ship> result = new ArrayList<>();
+        for (Ship ship : ships) {
+            if (predicate.test(ship)) {
+                result.add(ship);
+            }
+        }
+        return result;
+    }
+
+    List<Ship> findPage(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        return page(findAll(filter), comparator(order), pageNumber, pageSize);
+    }
+
+    long count(ShipFilter filter) {
+        Predicate<Ship> predicate = filter.toPredicate();
+        long count = 0;
+        for (Ship ship : ships) {
+            if (predicate.test(ship)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * In-memory counterpart of {@link ShipSpecifications#byOrder(ShipOrder)}, with the same id tie-breaker.
+     */
+    static Comparator<Ship> comparator(ShipOrder order) {
+        Comparator<Ship> byId = Comparator.comparing(Ship::getId);
+        if (order == null || order == ShipOrder.ID) {
+            return byId;
+        }
+        switch (order) {
+            case SPEED:
+                return Comparator.comparing(Ship::getSpeed).thenComparing(byId);
+            case DATE:
+                return Comparator.comparing(Ship::getProdDate).thenComparing(byId);
+            case RATING:
+                return Comparator.comparing(Ship::getRating).thenComparing(byId);
+            default:
+                throw new IllegalArgumentException("Unknown order " + order);
+        }
+    }
+
+    /**
+     * Page {@code pageNumber} of {@code items} sorted by {@code comparator}; equivalent to a full sort
+     * followed by skip/limit, but only the first {@code (pageNumber + 1) * pageSize} elements are ordered.
+     */
+    static <T> List<T> page(Collection<? extends T> items, Comparator<? super T> comparator, int pageNumber, int pageSize) {
+        long offset = (long) pageNumber * pageSize;
+        if (pageSize <= 0 || offset >= items.size()) {
+            return new ArrayList<>();
+        }
+        int k = (int) Math.min(offset + pageSize, items.size());
+        List<T> leading = TopK.smallest(items, comparator, k);
+        return new ArrayList<>(leading.subList((int) offset, leading.size()));
+    }
+}
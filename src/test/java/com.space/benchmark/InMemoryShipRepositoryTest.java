@@ -0,0 +1,53 @@
+package com.space.benchmark;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class InMemoryShipRepositoryTest {
+
+    @Test
+    public void pageMatchesFullSortForEveryOrder() {
+        // few distinct speeds, dates and ratings, so most comparisons are ties
+        List<Ship> ships = randomShips(500, new Random(7));
+        for (ShipOrder order : ShipOrder.values()) {
+            Comparator<Ship> comparator = InMemoryShipRepository.comparator(order);
+            for (int pageSize : new int[]{1, 3, 7, 50, 600}) {
+                for (int pageNumber = 0; (long) pageNumber * pageSize <= ships.size() + pageSize; pageNumber += Math.max(1, 100 / pageSize)) {
+                    assertEquals("order " + order + ", page " + pageNumber + " of " + pageSize,
+                            fullSortPage(ships, comparator, pageNumber, pageSize),
+                            InMemoryShipRepository.page(ships, comparator, pageNumber, pageSize));
+                }
+            }
+        }
+    }
+
+    private static List<Ship> fullSortPage(List<Ship> ships, Comparator<Ship> comparator, int pageNumber, int pageSize) {
+        List<Ship> sorted = new ArrayList<>(ships);
+        sorted.sort(comparator);
+        return sorted.stream().skip((long) pageNumber * pageSize).limit(pageSize).collect(Collectors.toList());
+    }
+
+    private static List<Ship> randomShips(int count, Random random) {
+        List<Ship> ships = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Ship ship = new Ship("Ship " + i, "Mars", ShipType.values()[random.nextInt(3)],
+                    new Date(32503669200000L + random.nextInt(5) * 31536000000L), random.nextBoolean(),
+                    random.nextInt(5) / 10d, 1 + random.nextInt(10));
+            ship.setId((long) (count - i) * 3);
+            ship.setRating(random.nextInt(5) / 4d);
+            ships.add(ship);
+        }
+        return ships;
+    }
+}
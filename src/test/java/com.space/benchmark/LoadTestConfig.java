@@ -0,0 +1,53 @@
+package com.space.benchmark;
+
+import com.space.config.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * The "dataSource" of {@link ShipLoadDriver}: an in-memory H2 database in MySQL mode behind the same
+ * HikariCP pool as prod, with the test.sql schema and {@code loadtest.ships} ships of the
+ * {@link SyntheticFleet} of {@code loadtest.seed}.
+ */
+@Configuration
+public class LoadTestConfig {
+
+    @Autowired
+    private Environment env;
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Bean(name = "dataSource")
+    public DataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("loadtest");
+        config.setJdbcUrl("jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(env.getProperty("cosmoport.datasource.pool.max-size", Integer.class, 10));
+        config.setMetricsTrackerFactory(connectionPoolMetrics);
+        HikariDataSource dataSource = new HikariDataSource(config);
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("test.sql"));
+        populator.setSqlScriptEncoding("UTF-8");
+        populator.execute(dataSource);
+        // test.sql already holds ships 1..40
+        long firstId = new JdbcTemplate(dataSource).queryForObject("select max(id) from ship", Long.class) + 1;
+        try {
+            new SyntheticFleet(env.getProperty("loadtest.seed", Long.class, 42L))
+                    .insert(dataSource, env.getProperty("loadtest.ships", Long.class, 1000000L), firstId);
+        } catch (SQLException e) {
+            throw new IllegalStateException("could not seed the load test database", e);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,115 @@
+package com.space.benchmark;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the former one-stream-per-parameter filter of ShipServiceImpl with the fused
+ * predicate compiled by {@link ShipFilter#toPredicate()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipFilterBenchmark {
+
+    @Param("100000")
+    public int fleetSize;
+
+    private List<Ship> ships;
+    private ShipFilter filter;
+
+    @Setup
+    public void setup() {
+        ships = SyntheticFleet.generate(fleetSize, 42);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2900, Calendar.JANUARY, 1);
+        long after = calendar.getTimeInMillis();
+        calendar.set(3015, Calendar.JANUARY, 1);
+        long before = calendar.getTimeInMillis();
+        filter = new ShipFilter("1", null, null, after, before, false, 0.1, 0.9, 10, 9000, 0.5, null);
+    }
+
+    @Benchmark
+    public List<Ship> multiPass() {
+        return legacyFilter(ships, filter.getName(), filter.getPlanet(), filter.getShipType(), filter.getAfter(), filter.getBefore(),
+                filter.getUsed(), filter.getMinSpeed(), filter.getMaxSpeed(), filter.getMinCrewSize(), filter.getMaxCrewSize(),
+                filter.getMinRating(), filter.getMaxRating());
+    }
+
+    @Benchmark
+    public List<Ship> fused() {
+        Predicate<Ship> predicate = filter.toPredicate();
+        List<Ship> result = new ArrayList<>();
+        for (Ship ship : ships) {
+            if (predicate.test(ship)) {
+                result.add(ship);
+            }
+        }
+        return result;
+    }
+
+    // verbatim copy of the pre user-001 ShipServiceImpl.filterShipList
+    private static List<Ship> legacyFilter(List<Ship> ships, String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed,
+                                           Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize, Double minRating, Double maxRating) {
+        if (name != null) {
+            ships = ships.stream().filter(s -> s.getName().contains(name)).collect(Collectors.toList());
+        }
+        if (planet != null) {
+            ships = ships.stream().filter(s -> s.getPlanet().contains(planet)).collect(Collectors.toList());
+        }
+        if (shipType != null) {
+            ships = ships.stream().filter(s -> s.getShipType().equals(shipType)).collect(Collectors.toList());
+        }
+        if (after != null) {
+            ships = ships.stream().filter(s -> s.getProdDate().after(new Date(after))).collect(Collectors.toList());
+        }
+        if (before != null) {
+            ships = ships.stream().filter(s -> s.getProdDate().before(new Date(before))).collect(Collectors.toList());
+        }
+        if (isUsed != null) {
+            ships = ships.stream().filter(s -> s.getUsed() == isUsed).collect(Collectors.toList());
+        }
+        if (minSpeed != null) {
+            ships = ships.stream().filter(s -> s.getSpeed() >= minSpeed).collect(Collectors.toList());
+        }
+        if (maxSpeed != null) {
+            ships = ships.stream().filter(s -> s.getSpeed() <= maxSpeed).collect(Collectors.toList());
+        }
+        if (minCrewSize != null) {
+            ships = ships.stream().filter(s -> s.getCrewSize() >= minCrewSize).collect(Collectors.toList());
+        }
+        if (maxCrewSize != null) {
+            ships = ships.stream().filter(s -> s.getCrewSize() <= maxCrewSize).collect(Collectors.toList());
+        }
+        if (minRating != null) {
+            ships = ships.stream().filter(s -> s.getRating() >= minRating).collect(Collectors.toList());
+        }
+        if (maxRating != null) {
+            ships = ships.stream().filter(s -> s.getRating() <= maxRating).collect(Collectors.toList());
+        }
+        return ships;
+    }
+}
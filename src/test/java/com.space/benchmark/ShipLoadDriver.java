@@ -0,0 +1,311 @@
+package com.space.benchmark;
+
+import com.space.config.AppConfig;
+import com.space.config.WebConfig;
+import com.space.controller.ShipOrder;
+import com.space.model.ShipType;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.web.context.ContextLoaderListener;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.servlet.ServletRegistration;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model load test of the whole stack: MyRestController on an embedded Tomcat with the WebConfig
+ * dispatcher and Jackson converter, AppConfig's JPA setup and the {@link LoadTestConfig} database.
+ * <p>
+ * Requests are issued at a fixed arrival rate whether or not earlier ones have completed, spread over
+ * {@code loadtest.connections} client threads. Latency is measured from the time a request was
+ * <em>scheduled</em>, so time spent queued behind a stalled server counts (coordinated-omission
+ * correction); the service time from the actual send is reported next to it. Settings are system
+ * properties:
+ * <ul>
+ * <li>{@code loadtest.rate} requests per second (200)</li>
+ * <li>{@code loadtest.duration} and {@code loadtest.warmup} seconds (60, 10); warmup is not recorded</li>
+ * <li>{@code loadtest.connections} client threads (32)</li>
+ * <li>{@code loadtest.mix} weights per operation ({@code list=50,count=20,get=20,create=4,update=4,delete=2})</li>
+ * <li>{@code loadtest.ships} rows seeded before the run (1000000) from the {@link SyntheticFleet} of
+ * {@code loadtest.seed} (42)</li>
+ * </ul>
+ */
+public class ShipLoadDriver {
+
+    enum Operation {
+        LIST, COUNT, GET, CREATE, UPDATE, DELETE
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final ShipOrder[] ORDERS = ShipOrder.values();
+    private static final ShipType[] TYPES = ShipType.values();
+
+    private final String baseUrl;
+    private final int rate;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final int connections;
+    private final Operation[] schedule;
+    private final long seededShips;
+
+    private final Map<Operation, Histogram> corrected = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> uncorrected = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    // ships created by the run, deleted again by DELETE requests
+    private final ConcurrentLinkedQueue<Long> created = new ConcurrentLinkedQueue<>();
+
+    ShipLoadDriver(String baseUrl, int rate, long durationSeconds, long warmupSeconds, int connections,
+                   Map<Operation, Integer> mix, long seededShips) {
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.connections = connections;
+        this.seededShips = seededShips;
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.schedule = weighted.toArray(new Operation[0]);
+        for (Operation operation : Operation.values()) {
+            corrected.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            uncorrected.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        int connections = Integer.getInteger("loadtest.connections", 32);
+        long ships = Integer.getInteger("loadtest.ships", 1000000);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix", "list=50,count=20,get=20,create=4,update=4,delete=2"));
+        // HttpURLConnection keeps only 5 idle connections per host by default
+        System.setProperty("http.maxConnections", String.valueOf(connections));
+
+        Path baseDir = Files.createTempDirectory("cosmoport-loadtest");
+        Tomcat tomcat = startServer(baseDir);
+        try {
+            String baseUrl = "http://localhost:" + tomcat.getConnector().getLocalPort();
+            System.out.printf("Serving %d ships at %s%n", ships + 40, baseUrl);
+            ShipLoadDriver driver = new ShipLoadDriver(baseUrl, rate, Long.getLong("loadtest.duration", 60),
+                    Long.getLong("loadtest.warmup", 10), connections, mix, ships + 40);
+            driver.run();
+            driver.report(System.out);
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    /**
+     * Tomcat with the contexts of MyWebAppInit, except that LoadTestConfig supplies the dataSource.
+     */
+    private static Tomcat startServer(Path baseDir) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        StandardContext context = (StandardContext) tomcat.addContext("", baseDir.toString());
+        // the class loader is the application one and never leaks; clearing these caches needs --add-opens on Java 9+
+        context.setClearReferencesObjectStreamClassCaches(false);
+        context.addServletContainerInitializer((classes, servletContext) -> {
+            AnnotationConfigWebApplicationContext root = new AnnotationConfigWebApplicationContext();
+            root.register(AppConfig.class, LoadTestConfig.class);
+            servletContext.addListener(new ContextLoaderListener(root));
+            AnnotationConfigWebApplicationContext web = new AnnotationConfigWebApplicationContext();
+            web.register(WebConfig.class);
+            ServletRegistration.Dynamic dispatcher = servletContext.addServlet("dispatcher", new DispatcherServlet(web));
+            dispatcher.setLoadOnStartup(1);
+            dispatcher.addMapping("/");
+        }, null);
+        tomcat.getConnector();
+        tomcat.start();
+        return tomcat;
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    void run() throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(connections);
+        Random random = new Random(42);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long total = (warmupNanos + durationNanos) / intervalNanos;
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            for (long now = System.nanoTime(); now < scheduled; now = System.nanoTime()) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            boolean recorded = scheduled - start >= warmupNanos;
+            // an unbounded queue: when the clients fall behind, requests wait and that wait is measured
+            clients.execute(() -> execute(operation, scheduled, recorded));
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(1, TimeUnit.MINUTES)) {
+            clients.shutdownNow();
+            System.out.println("Gave up on requests still queued a minute after the last was scheduled");
+        }
+    }
+
+    private void execute(Operation operation, long scheduled, boolean recorded) {
+        long sent = System.nanoTime();
+        boolean ok;
+        try {
+            ok = send(operation);
+        } catch (IOException e) {
+            ok = false;
+        }
+        long done = System.nanoTime();
+        if (recorded) {
+            corrected.get(operation).recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(done - scheduled)));
+            uncorrected.get(operation).recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(done - sent)));
+            if (!ok) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+    }
+
+    private boolean send(Operation operation) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int status;
+        switch (operation) {
+            case LIST:
+                return request("GET", "/rest/ships?pageNumber=" + random.nextInt(10) + "&pageSize=20&order="
+                        + ORDERS[random.nextInt(ORDERS.length)] + "&minSpeed=" + random.nextInt(1, 90) / 100d, null) == 200;
+            case COUNT:
+                return request("GET", "/rest/ships/count?shipType=" + TYPES[random.nextInt(TYPES.length)]
+                        + "&isUsed=" + random.nextBoolean(), null) == 200;
+            case GET:
+                status = request("GET", "/rest/ships/" + randomId(), null);
+                return status == 200 || status == 404;
+            case CREATE:
+                return request("POST", "/rest/ships", shipJson(random)) == 200;
+            case UPDATE:
+                status = request("POST", "/rest/ships/" + randomId(), "{\"speed\":" + random.nextInt(1, 100) / 100d + "}");
+                return status == 200 || status == 404;
+            case DELETE:
+                // the ships created by this run first, so that the fleet size stays put
+                Long id = created.poll();
+                status = request("DELETE", "/rest/ships/" + (id == null ? randomId() : id), null);
+                return status == 200 || (id == null && status == 404);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, seededShips + 1);
+    }
+
+    private static String shipJson(ThreadLocalRandom random) {
+        return "{\"name\":\"Load " + random.nextInt(1000000) + "\",\"planet\":\"Planet " + random.nextInt(50)
+                + "\",\"shipType\":\"" + TYPES[random.nextInt(TYPES.length)] + "\",\"prodDate\":" + (32503669200000L + random.nextLong(0, 500000000000L))
+                + ",\"isUsed\":" + random.nextBoolean() + ",\"speed\":" + random.nextInt(1, 100) / 100d
+                + ",\"crewSize\":" + random.nextInt(1, 10000) + "}";
+    }
+
+    private int request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        // the body must be drained for the connection to be reused
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        String response = in == null ? "" : drain(in);
+        if (method.equals("POST") && path.equals("/rest/ships") && status == 200) {
+            Matcher matcher = ID.matcher(response);
+            if (matcher.find()) {
+                created.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return status;
+    }
+
+    private static String drain(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n = stream.read(buffer); n >= 0; n = stream.read(buffer)) {
+                out.write(buffer, 0, n);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    void report(PrintStream out) {
+        double seconds = durationNanos / 1e9;
+        Histogram allCorrected = new Histogram(MAX_LATENCY_MICROS, 3);
+        Histogram allUncorrected = new Histogram(MAX_LATENCY_MICROS, 3);
+        long allErrors = 0;
+        out.printf("%nTarget rate %d req/s over %.0f s, %d client threads; latencies in ms%n", rate, seconds, connections);
+        out.printf("%-8s %9s %8s %8s | %8s %8s %8s %8s | %8s %8s %8s%n", "op", "requests", "req/s", "errors",
+                "p50", "p99", "p99.9", "max", "svc p50", "svc p99", "svc p99.9");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = corrected.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            allCorrected.add(histogram);
+            allUncorrected.add(uncorrected.get(operation));
+            allErrors += errors.get(operation).get();
+            print(out, operation.name().toLowerCase(), histogram, uncorrected.get(operation), errors.get(operation).get(), seconds);
+        }
+        print(out, "all", allCorrected, allUncorrected, allErrors, seconds);
+    }
+
+    private static void print(PrintStream out, String name, Histogram corrected, Histogram uncorrected, long errors, double seconds) {
+        out.printf("%-8s %9d %8.1f %8d | %8.2f %8.2f %8.2f %8.2f | %8.2f %8.2f %8.2f%n", name, corrected.getTotalCount(),
+                corrected.getTotalCount() / seconds, errors,
+                millis(corrected.getValueAtPercentile(50)), millis(corrected.getValueAtPercentile(99)),
+                millis(corrected.getValueAtPercentile(99.9)), millis(corrected.getMaxValue()),
+                millis(uncorrected.getValueAtPercentile(50)), millis(uncorrected.getValueAtPercentile(99)),
+                millis(uncorrected.getValueAtPercentile(99.9)));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+}
@@ -0,0 +1,69 @@
+package com.space.benchmark;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the former sort-then-skip/limit pagination of ShipServiceImpl with {@link InMemoryShipRepository#page}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipPaginationBenchmark {
+
+    @Param("100000")
+    public int fleetSize;
+
+    @Param({"0", "10", "1000"})
+    public int pageNumber;
+
+    @Param({"SPEED", "RATING"})
+    public ShipOrder order;
+
+    private static final int PAGE_SIZE = 3;
+
+    private List<Ship> ships;
+    private Comparator<Ship> comparator;
+
+    @Setup
+    public void setup() {
+        ships = SyntheticFleet.generate(fleetSize, 42);
+        comparator = InMemoryShipRepository.comparator(order);
+    }
+
+    @Benchmark
+    public List<Ship> fullSort() {
+        // the pre user-001 filterShipsDisplay sorted the (already copied) filtered list in place
+        List<Ship> sorted = new ArrayList<>(ships);
+        sorted.sort(comparator);
+        return sorted.stream()
+                .skip(pageNumber * PAGE_SIZE)
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Ship> topK() {
+        return InMemoryShipRepository.page(ships, comparator, pageNumber, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,92 @@
+package com.space.benchmark;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.repository.ShipFilter;
+import com.space.service.ShipRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression suite for the in-memory query pipeline (filter predicate, order comparator, top-k paging and
+ * rating) over a {@link SyntheticFleet} served by an {@link InMemoryShipRepository}.
+ * <p>
+ * {@code selectivity} is the share of the fleet the filter lets through, via a {@code maxSpeed} bound at
+ * that quantile of the speeds. Throughput and sample-time modes together report ops/ms and the
+ * p50/p90/p99/p99.9 latencies; the benchmark profile adds {@code -prof gc} for the allocation rate. The
+ * full grid takes hours, so narrow it, e.g. {@code -Djmh.args="-prof gc -p fleetSize=1000000 -p order=RATING"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ShipQueryPipelineBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int fleetSize;
+
+    @Param({"0.01", "0.1", "1"})
+    public double selectivity;
+
+    @Param({"ID", "SPEED", "DATE", "RATING"})
+    public ShipOrder order;
+
+    // the default page of /rest/ships, and one deep enough to need a real heap
+    private static final int PAGE_SIZE = 3;
+    private static final int DEEP_PAGE = 100;
+
+    private InMemoryShipRepository repository;
+    private ShipFilter filter;
+    private List<Ship> matching;
+
+    @Setup
+    public void setup() {
+        List<Ship> fleet = SyntheticFleet.generate(fleetSize, 42);
+        repository = new InMemoryShipRepository(fleet);
+        // the speed quantile of the selectivity; speeds come in hundredths, so the share is approximate
+        Double maxSpeed = null;
+        if (selectivity < 1) {
+            double[] speeds = fleet.stream().mapToDouble(Ship::getSpeed).sorted().toArray();
+            maxSpeed = speeds[(int) (selectivity * (speeds.length - 1))];
+        }
+        filter = new ShipFilter(null, null, null, null, null, null, null, maxSpeed, null, null, null, null);
+        matching = repository.findAll(filter);
+    }
+
+    @Benchmark
+    public long count() {
+        return repository.count(filter);
+    }
+
+    @Benchmark
+    public List<Ship> firstPage() {
+        return repository.findPage(filter, order, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Ship> deepPage() {
+        return repository.findPage(filter, order, DEEP_PAGE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void rateMatches(Blackhole blackhole) {
+        for (Ship ship : matching) {
+            blackhole.consume(ShipRules.calculateRating(ship, ShipRules.CURRENT_YEAR));
+        }
+    }
+}
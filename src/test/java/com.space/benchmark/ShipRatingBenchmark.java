@@ -0,0 +1,88 @@
+package com.space.benchmark;
+
+import com.space.service.ShipRating;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former ShipRules rating (Calendar year check, ZonedDateTime year, BigDecimal rounding)
+ * with {@link ShipRating}. Every operation rates {@link #SHIPS} ships; run with {@code -prof gc} to
+ * see the allocation per ship drop to zero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipRatingBenchmark {
+
+    private static final int SHIPS = 1024;
+    private static final int CURRENT_YEAR = 3019;
+
+    private Date[] prodDates;
+    private double[] speeds;
+    private boolean[] used;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(17);
+        long first = LocalDate.of(2800, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long last = LocalDate.of(3020, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        prodDates = new Date[SHIPS];
+        speeds = new double[SHIPS];
+        used = new boolean[SHIPS];
+        for (int i = 0; i < SHIPS; i++) {
+            prodDates[i] = new Date(first + (long) (random.nextDouble() * (last - first)));
+            speeds[i] = random.nextDouble();
+            used[i] = random.nextBoolean();
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (int i = 0; i < SHIPS; i++) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime(prodDates[i]);
+            blackhole.consume(calendar.get(Calendar.YEAR));
+            double speed = legacyRound(speeds[i]);
+            int year = prodDates[i].toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear();
+            double rating = (80 * speed * (used[i] ? 0.5d : 1.0d)) / (double) (CURRENT_YEAR - year + 1);
+            blackhole.consume(legacyRound(rating));
+        }
+    }
+
+    @Benchmark
+    public void primitive(Blackhole blackhole) {
+        for (int i = 0; i < SHIPS; i++) {
+            int year = ShipRating.year(prodDates[i].getTime());
+            blackhole.consume(year);
+            double speed = ShipRating.roundToHundreds(speeds[i]);
+            blackhole.consume(ShipRating.rating(speed, used[i], year, CURRENT_YEAR));
+        }
+    }
+
+    private static double legacyRound(double n) {
+        BigDecimal instance = new BigDecimal(Double.toString(n));
+        instance = instance.setScale(2, RoundingMode.HALF_UP);
+        return instance.doubleValue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.space.benchmark;
+
+import com.space.config.AppConfig;
+import com.space.model.Ship;
+import com.space.repository.ShipFilter;
+import com.space.repository.ShipRepository;
+import com.space.repository.ShipSpecifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former list path (managed {@code Ship} entities in a read-write transaction, dirty-checked
+ * and flushed at commit) with the read-only transaction and constructor projection of
+ * {@code ShipRepositoryCustom#findPage}, against an H2 ship table of {@code fleetSize} rows of the
+ * {@link SyntheticFleet}. {@code -prof gc} shows the heap each request allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ShipReadPathBenchmark {
+
+    @Param("1000000")
+    public int fleetSize;
+
+    @Param({"1000", "100000"})
+    public int pageSize;
+
+    private static final ShipFilter NO_FILTER =
+            new ShipFilter(null, null, null, null, null, null, null, null, null, null, null, null);
+
+    private AnnotationConfigApplicationContext context;
+    private ShipRepository shipRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setup() throws SQLException {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("dev");
+        context.register(AppConfig.class);
+        context.refresh();
+        DataSource dataSource = context.getBean(DataSource.class);
+        long firstId = new JdbcTemplate(dataSource).queryForObject("select coalesce(max(id), 0) + 1 from ship", Long.class);
+        new SyntheticFleet(42).insert(dataSource, fleetSize, firstId);
+
+        shipRepository = context.getBean(ShipRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int managedEntities() {
+        return readWrite.execute(status -> entityManager
+                .createQuery("select s from Ship s order by s.id", Ship.class)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .size());
+    }
+
+    @Benchmark
+    public int readOnlyProjection() {
+        return readOnly.execute(status -> shipRepository
+                .findPage(ShipSpecifications.byFilter(NO_FILTER), PageRequest.of(0, pageSize, ShipSpecifications.byOrder(null)))
+                .size());
+    }
+}
@@ -0,0 +1,284 @@
+package com.space.benchmark;
+
+import com.space.controller.ShipExportFormat;
+import com.space.controller.ShipExportWriter;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.service.ShipRules;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The shared dataset of the benchmarks and the load test: ships with the value ranges of the API and
+ * ratings computed by {@link ShipRules}.
+ * <p>
+ * Every ship is derived from the seed and its index alone, so the same seed always gives the same ships,
+ * a fleet of n ships is the first n ships of any larger one, and chunks of a fleet of tens of millions can
+ * be generated in parallel without holding it in memory. The distributions follow the test.sql fleet
+ * rather than being uniform:
+ * <ul>
+ * <li>names are the test.sql names with a roman numeral, a hull number or nothing behind them</li>
+ * <li>planets are the eight of test.sql with a skew towards Saturn, Jupiter and Mars, plus a long tail
+ * of 2000 exoplanets holding one ship in twenty</li>
+ * <li>ship types are 40% transport, 35% merchant and 25% military, and 45% of the ships are used</li>
+ * <li>production years fall linearly from 3019 back to 2800, on any day of the year</li>
+ * <li>speeds are triangular around 0.50 and crew sizes log-uniform from 1 to 9999</li>
+ * </ul>
+ * Run it directly to write a fleet to a file or a database, e.g.
+ * {@code mvn -P fleet verify -DskipTests -Dfleet.args="-Dfleet.size=10000000 -Dfleet.target=/tmp/ships.csv"}:
+ * <ul>
+ * <li>{@code fleet.size} ships (1000000) and {@code fleet.seed} (42)</li>
+ * <li>{@code fleet.target} a {@code .ndjson} or {@code .csv} file in the /rest/ships/export layout, which
+ * POST /rest/admin/imports loads, or a JDBC URL of a database with the init.sql schema; for MySQL add
+ * {@code rewriteBatchedStatements=true} to the URL</li>
+ * <li>{@code fleet.user} and {@code fleet.password} for a JDBC target</li>
+ * </ul>
+ */
+public final class SyntheticFleet {
+
+    public static final int FIRST_YEAR = 2800;
+    private static final int YEARS = ShipRules.CURRENT_YEAR - FIRST_YEAR + 1;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final int INSERT_BATCH = 10000;
+
+    private static final String[] NAMES = {"Orion", "Daedalus", "Eagle Transporter", "F-302 Mongoose", "Excalibur",
+            "Explorer", "Icarus", "Hermes", "Odyssey", "Orbit Jet", "Aries", "Hunter", "Serenity", "Scorpio",
+            "Mark IX Hawk", "Excelsior", "Amaterasu", "USS Cygnus", "Argonaut", "Avalon", "Arcadia", "Red Dwarf",
+            "Derelict", "Terra", "Hyperion", "Normandy", "Battlestar", "Conquistador", "Titan", "Prometheus",
+            "Centaur", "Venture Star", "Vorlon", "Liberator", "Vulture", "Elysium", "Nemesis", "Nostromo", "Tardis",
+            "Star Destroyer"};
+    private static final String[] NUMERALS = {"I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX", "X",
+            "XI", "XII", "XIII", "XIV", "XV", "XVI", "XVII", "XVIII", "XIX", "XX"};
+    private static final String[] PLANETS = {"Saturn", "Jupiter", "Mars", "Earth", "Venus", "Mercury", "Neptune", "Uranus"};
+    // cumulative shares in percent of the eight planets, the remaining five percent go to the exoplanets
+    private static final int[] PLANET_SHARES = {21, 38, 52, 64, 75, 84, 91, 95};
+    private static final int EXOPLANETS = 2000;
+
+    private final long seed;
+    private final long[] yearStarts = new long[YEARS];
+    private final String[] exoplanets = new String[EXOPLANETS];
+
+    public SyntheticFleet(long seed) {
+        this.seed = seed;
+        for (int i = 0; i < YEARS; i++) {
+            yearStarts[i] = LocalDate.of(FIRST_YEAR + i, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        for (int i = 0; i < EXOPLANETS; i++) {
+            exoplanets[i] = "Kepler-" + (i + 1) + " b";
+        }
+    }
+
+    /**
+     * Ship number {@code index} of the fleet, with the id {@code index + 1}.
+     */
+    public Ship ship(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed * 0x9E3779B97F4A7C15L + index));
+
+        String name = NAMES[random.nextInt(NAMES.length)];
+        int suffix = random.nextInt(10);
+        if (suffix < 5) {
+            name = name + " " + NUMERALS[random.nextInt(NUMERALS.length)];
+        } else if (suffix < 8) {
+            name = name + " " + (1 + random.nextInt(9999));
+        }
+
+        String planet = exoplanets[random.nextInt(EXOPLANETS)];
+        int share = random.nextInt(100);
+        for (int i = 0; i < PLANET_SHARES.length; i++) {
+            if (share < PLANET_SHARES[i]) {
+                planet = PLANETS[i];
+                break;
+            }
+        }
+
+        int type = random.nextInt(100);
+        ShipType shipType = type < 40 ? ShipType.TRANSPORT : type < 75 ? ShipType.MERCHANT : ShipType.MILITARY;
+        // the smaller of two uniform ages: linearly fewer ships the older the year
+        int age = Math.min(random.nextInt(YEARS), random.nextInt(YEARS));
+        long prodDate = yearStarts[YEARS - 1 - age] + random.nextInt(364) * DAY_MILLIS;
+        boolean used = random.nextInt(100) < 45;
+        double speed = (1 + random.nextInt(50) + random.nextInt(50)) / 100d;
+        int crewSize = (int) Math.min(9999, Math.exp(random.nextDouble() * Math.log(10000)));
+
+        Ship ship = new Ship(name, planet, shipType, new Date(prodDate), used, speed, crewSize);
+        ship.setId(index + 1);
+        ship.setRating(ShipRules.calculateRating(ship, ShipRules.CURRENT_YEAR));
+        return ship;
+    }
+
+    public void forEach(long size, Consumer<Ship> action) {
+        for (long i = 0; i < size; i++) {
+            action.accept(ship(i));
+        }
+    }
+
+    public List<Ship> list(int size) {
+        List<Ship> ships = new ArrayList<>(size);
+        forEach(size, ships::add);
+        return ships;
+    }
+
+    static List<Ship> generate(int size, long seed) {
+        return new SyntheticFleet(seed).list(size);
+    }
+
+    /**
+     * Writes the fleet in the /rest/ships/export layout.
+     */
+    public void write(Path file, ShipExportFormat format, long size) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             ShipExportWriter writer = new ShipExportWriter(format, out)) {
+            forEach(size, writer);
+        }
+    }
+
+    /**
+     * Inserts the fleet into the ship table with the ids {@code firstId} onwards, in JDBC batches from one
+     * connection per core, and moves ship_seq behind the largest id. The secondary indexes of the table are
+     * dropped for the load and rebuilt after it, which is several times faster than maintaining them row
+     * by row.
+     */
+    public void insert(DataSource dataSource, long size, long firstId) throws SQLException {
+        Map<String, List<String>> indexes = secondaryIndexes(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String index : indexes.keySet()) {
+                statement.execute("alter table ship drop index " + index);
+            }
+        }
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+        AtomicLong nextChunk = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.setAutoCommit(false);
+                        long from;
+                        while ((from = nextChunk.getAndAdd(INSERT_BATCH)) < size) {
+                            insertChunk(connection, from, Math.min(size, from + INSERT_BATCH), firstId);
+                            connection.commit();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> worker : executor.invokeAll(workers)) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while inserting the fleet", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, List<String>> index : indexes.entrySet()) {
+                statement.execute("create index " + index.getKey() + " on ship (" + String.join(", ", index.getValue()) + ")");
+            }
+            statement.executeUpdate("update ship_seq set next_val = (select max(id) + 1 from ship)");
+        }
+    }
+
+    // name to columns of the non-unique indexes of the ship table
+    private static Map<String, List<String>> secondaryIndexes(DataSource dataSource) throws SQLException {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "SHIP" : "ship";
+            try (ResultSet columns = metaData.getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+                while (columns.next()) {
+                    if (columns.getBoolean("NON_UNIQUE") && columns.getString("COLUMN_NAME") != null) {
+                        // columns come ordered by index name and position
+                        indexes.computeIfAbsent(columns.getString("INDEX_NAME"), name -> new ArrayList<>())
+                                .add(columns.getString("COLUMN_NAME"));
+                    }
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private void insertChunk(Connection connection, long from, long to, long firstId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("insert into ship"
+                + "(id, name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) values (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long i = from; i < to; i++) {
+                Ship ship = ship(i);
+                statement.setLong(1, firstId + i);
+                statement.setString(2, ship.getName());
+                statement.setString(3, ship.getPlanet());
+                statement.setString(4, ship.getShipType().name());
+                statement.setTimestamp(5, new Timestamp(ship.getProdDate().getTime()));
+                statement.setBoolean(6, ship.getUsed());
+                statement.setDouble(7, ship.getSpeed());
+                statement.setInt(8, ship.getCrewSize());
+                statement.setDouble(9, ship.getRating());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // the SplitMix64 finalizer, so that neighbouring indexes get unrelated generators
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static void main(String[] args) throws Exception {
+        long size = Long.getLong("fleet.size", 1000000);
+        SyntheticFleet fleet = new SyntheticFleet(Long.getLong("fleet.seed", 42));
+        String target = System.getProperty("fleet.target", "ships.ndjson");
+        long start = System.nanoTime();
+        if (target.startsWith("jdbc:")) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(target,
+                    System.getProperty("fleet.user"), System.getProperty("fleet.password"));
+            long firstId;
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+                 ResultSet maxId = statement.executeQuery("select coalesce(max(id), 0) + 1 from ship")) {
+                maxId.next();
+                firstId = maxId.getLong(1);
+            }
+            fleet.insert(dataSource, size, firstId);
+        } else {
+            ShipExportFormat format = target.endsWith(".csv") ? ShipExportFormat.CSV : ShipExportFormat.NDJSON;
+            fleet.write(Paths.get(target), format, size);
+        }
+        System.out.printf("%d ships written to %s in %d ms%n", size, target, (System.nanoTime() - start) / 1_000_000);
+    }
+}
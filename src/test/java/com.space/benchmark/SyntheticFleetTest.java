@@ -0,0 +1,65 @@
+package com.space.benchmark;
+
+import com.space.controller.ShipExportFormat;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.service.ShipRules;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SyntheticFleetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sameSeedGivesSameFleetAndPrefixes() throws Exception {
+        List<String> fleet = csv(new SyntheticFleet(42), 5000);
+        List<String> again = csv(new SyntheticFleet(42), 5000);
+        List<String> smaller = csv(new SyntheticFleet(42), 1000);
+        List<String> otherSeed = csv(new SyntheticFleet(43), 1000);
+
+        assertEquals(5001, fleet.size());
+        assertEquals(fleet, again);
+        assertEquals(fleet.subList(0, 1001), smaller);
+        assertNotEquals(smaller, otherSeed);
+    }
+
+    @Test
+    public void shipsAreValidAndRated() {
+        SyntheticFleet fleet = new SyntheticFleet(7);
+        Map<ShipType, Integer> types = new EnumMap<>(ShipType.class);
+        int used = 0;
+        for (int i = 0; i < 20000; i++) {
+            Ship ship = fleet.ship(i);
+            assertEquals(Long.valueOf(i + 1), ship.getId());
+            assertNull(ship.getName(), ShipRules.validationError(ship));
+            assertEquals(ShipRules.calculateRating(ship, ShipRules.CURRENT_YEAR), ship.getRating());
+            types.merge(ship.getShipType(), 1, Integer::sum);
+            used += ship.getUsed() ? 1 : 0;
+        }
+        // 40/35/25 percent and 45 percent used, within a few hundred ships
+        assertTrue(types.toString(), Math.abs(types.get(ShipType.TRANSPORT) - 8000) < 400);
+        assertTrue(types.toString(), Math.abs(types.get(ShipType.MILITARY) - 5000) < 400);
+        assertTrue(String.valueOf(used), Math.abs(used - 9000) < 400);
+    }
+
+    private List<String> csv(SyntheticFleet fleet, int size) throws Exception {
+        Path file = folder.newFile().toPath();
+        fleet.write(file, ShipExportFormat.CSV, size);
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+package com.space.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConnectionPoolMetricsTest {
+
+    private ConnectionPoolMetrics metrics;
+    private HikariDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        metrics = new ConnectionPoolMetrics();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:pool-metrics");
+        config.setMinimumIdle(1);
+        config.setMaximumPoolSize(2);
+        config.setConnectionTimeout(250);
+        config.setMetricsTrackerFactory(metrics);
+        dataSource = new HikariDataSource(config);
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void unboundMetricsReportNoPool() {
+        PoolStatistics statistics = new ConnectionPoolMetrics().getStatistics();
+        assertFalse(statistics.isPooled());
+        assertEquals(0, statistics.getRequests());
+    }
+
+    @Test
+    public void reportsActiveIdleAndTimeouts() throws SQLException {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            try {
+                dataSource.getConnection().close();
+                fail("a third connection must time out");
+            } catch (SQLException expected) {
+                // pool exhausted
+            }
+            PoolStatistics busy = metrics.getStatistics();
+            assertTrue(busy.isPooled());
+            assertEquals(2, busy.getActive());
+            assertEquals(0, busy.getIdle());
+            assertEquals(2, busy.getMaxSize());
+            // the timed out request counts too, and its wait spans the whole connection timeout
+            assertEquals(3, busy.getRequests());
+            assertEquals(1, busy.getTimeouts());
+            assertTrue(busy.getMaxWaitMillis() >= 250);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.space.controller;
 import com.space.config.AppConfig;
 import com.space.config.MyWebAppInit;
 import com.space.config.WebConfig;
+import com.space.service.ShipChangeListener;
+import com.space.service.ShipIdAllocator;
 import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,5 +36,8 @@ public abstract class AbstractTest {
     @Before
     public void setup() {
         mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        // @Sql has just reloaded the ship table behind ShipService's back
+        context.getBeansOfType(ShipChangeListener.class).values().forEach(ShipChangeListener::reset);
+        context.getBean(ShipIdAllocator.class).reset();
     }
 }
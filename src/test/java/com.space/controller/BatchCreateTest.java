@@ -0,0 +1,91 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.StatementRecorder;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ContextConfiguration(classes = StatementRecorder.class)
+public class BatchCreateTest extends AbstractTest {
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void invalidItemsDoNotAbortBatch() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON.replace("123456789", "First")
+                + "," + TestsHelper.NO_SPEED_JSON
+                + "," + TestsHelper.NORMAL_JSON.replace("123456789", "Second")
+                + "," + TestsHelper.TOO_BIG_CREW_SIZE_JSON + "]";
+
+        JsonNode result = createBatch(body);
+
+        assertEquals("Неверное количество созданных кораблей.", 2, result.get("created").size());
+        assertEquals("Идентификаторы выдаются после существующих кораблей.", 41L, result.get("created").get(0).get("id").asLong());
+        assertEquals("Идентификаторы выдаются после существующих кораблей.", 42L, result.get("created").get(1).get("id").asLong());
+        assertEquals("Рейтинг должен рассчитываться.", 12.8, result.get("created").get(0).get("rating").asDouble());
+        assertEquals("Неверное количество ошибок.", 2, result.get("errors").size());
+        assertEquals("Ошибка должна указывать на элемент запроса.", 1, result.get("errors").get(0).get("index").asInt());
+        assertEquals("Ошибка должна указывать на элемент запроса.", 3, result.get("errors").get(1).get("index").asInt());
+
+        String count = mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Созданные корабли должны сохраняться.", "42", count);
+    }
+
+    //test2
+    @Test
+    public void insertsAreBatched() throws Exception {
+        List<String> ships = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            ships.add(TestsHelper.NORMAL_JSON.replace("123456789", "Batch " + i));
+        }
+
+        recorder.clear();
+        JsonNode result = createBatch("[" + String.join(",", ships) + "]");
+
+        assertEquals("Неверное количество созданных кораблей.", 120, result.get("created").size());
+        // one id reservation (select + update) and three JDBC batches of at most 50 inserts
+        recorder.assertAtMost(5, "POST /rest/ships/batch со 120 кораблями");
+    }
+
+    //test3
+    @Test
+    public void createAfterBatchContinuesIds() throws Exception {
+        createBatch("[" + TestsHelper.NORMAL_JSON + "]");
+
+        String content = mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неверный идентификатор нового корабля.", 42L, mapper.readTree(content).get("id").asLong());
+    }
+
+    private JsonNode createBatch(String body) throws Exception {
+        String content = mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
@@ -0,0 +1,51 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CountConsistencyTest extends AbstractTest {
+
+    // the filter combinations used by GetCountTest
+    private static final String[] FILTERS = {
+            "",
+            "minRating=0.5&minCrewSize=100&minSpeed=0.3",
+            "name=nt&after=32188140000000&maxRating=3",
+            "shipType=MERCHANT&isUsed=true",
+            "shipType=MILITARY&maxCrewSize=400",
+            "planet=us",
+            "shipType=TRANSPORT&before=32976972000000&maxSpeed=0.7",
+            "isUsed=false&minSpeed=0.3&maxSpeed=0.6"
+    };
+
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Test
+    public void countMatchesListSizeForSameFilters() throws Exception {
+        for (String filter : FILTERS) {
+            String count = mockMvc.perform(get("/rest/ships/count?" + filter)
+                    .accept(MediaType.APPLICATION_JSON_UTF8))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            String list = mockMvc.perform(get("/rest/ships?pageSize=1000&" + filter)
+                    .accept(MediaType.APPLICATION_JSON_UTF8))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<ShipInfoTest> ships = mapper.readValue(list, typeReference);
+
+            assertEquals("GET /rest/ships/count и GET /rest/ships расходятся для фильтра '" + filter + "'.",
+                    ships.size(), Integer.parseInt(count));
+        }
+    }
+}
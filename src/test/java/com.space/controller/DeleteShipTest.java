@@ -1,14 +1,21 @@
 package com.space.controller;
 
+import com.space.controller.utils.StatementRecorder;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@ContextConfiguration(classes = StatementRecorder.class)
 public class DeleteShipTest extends AbstractTest {
 
+    @Autowired
+    private StatementRecorder recorder;
+
     //test1
     @Test
     public void deleteShipByIdZeroTest() throws Exception {
@@ -44,4 +51,20 @@ public class DeleteShipTest extends AbstractTest {
                 .accept(MediaType.APPLICATION_JSON_UTF8))
                 .andExpect(status().isNotFound());
     }
+
+    //test5
+    @Test
+    public void deleteShipByIdStatementBudgetTest() throws Exception {
+        recorder.clear();
+        mockMvc.perform(delete("/rest/ships/2")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+        recorder.assertAtMost(2, "DELETE /rest/ships/{id}");
+
+        recorder.clear();
+        mockMvc.perform(delete("/rest/ships/426")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+        recorder.assertAtMost(1, "DELETE /rest/ships/{id} для несуществующего корабля");
+    }
 }
\ No newline at end of file
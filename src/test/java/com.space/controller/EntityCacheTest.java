@@ -0,0 +1,96 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.StatementRecorder;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.ShipEntityCache;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ContextConfiguration(classes = StatementRecorder.class)
+public class EntityCacheTest extends AbstractTest {
+
+    @Autowired
+    private StatementRecorder recorder;
+    @Autowired
+    private ShipEntityCache shipEntityCache;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void hotShipIsServedWithoutSql() throws Exception {
+        // the context, and with it the cache counters, is shared with other test classes
+        long initialHits = shipEntityCache.getStatistics().getHits();
+        String first = getShip(14);
+        recorder.clear();
+        String second = getShip(14);
+
+        assertEquals(first, second);
+        assertEquals("Повторный запрос корабля не должен обращаться к базе данных.", 0, recorder.count());
+        assertEquals(1, shipEntityCache.getStatistics().getHits() - initialHits);
+    }
+
+    //test2
+    @Test
+    public void updateWritesThrough() throws Exception {
+        getShip(3);
+        mockMvc.perform(post("/rest/ships/3")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        recorder.clear();
+        ShipInfoTest ship = mapper.readValue(getShip(3), ShipInfoTest.class);
+        assertEquals("Renamed", ship.name);
+        assertEquals("Обновленный корабль должен браться из кэша.", 0, recorder.count());
+    }
+
+    //test3
+    @Test
+    public void deleteEvicts() throws Exception {
+        long initialInvalidations = shipEntityCache.getStatistics().getInvalidations();
+        getShip(5);
+        mockMvc.perform(delete("/rest/ships/5"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/ships/5")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+        assertEquals(1, shipEntityCache.getStatistics().getInvalidations() - initialInvalidations);
+    }
+
+    //test4
+    @Test
+    public void createsDoNotFillTheCache() throws Exception {
+        getShip(14);
+        long size = shipEntityCache.getStatistics().getSize();
+        mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        assertEquals("Созданный корабль не должен попадать в кэш.", size, shipEntityCache.getStatistics().getSize());
+        recorder.clear();
+        getShip(14);
+        assertEquals("Запись другого корабля не должна вытеснять закэшированный.", 0, recorder.count());
+    }
+
+    private String getShip(long id) throws Exception {
+        return mockMvc.perform(get("/rest/ships/" + id)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
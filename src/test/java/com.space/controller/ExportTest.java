@@ -0,0 +1,78 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void exportNdjsonWithFilterTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships/export?planet=Saturn&order=SPEED"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+
+        assertEquals("Неверный Content-Type выгрузки.", true, result.getResponse().getContentType().startsWith("application/x-ndjson"));
+        assertEquals("Выгрузка должна учитывать фильтры.", 10, lines.length);
+        double previousSpeed = 0;
+        for (String line : lines) {
+            JsonNode ship = mapper.readTree(line);
+            assertEquals("Выгрузка должна учитывать фильтры.", "Saturn", ship.get("planet").asText());
+            assertEquals("Выгрузка должна быть упорядочена.", true, ship.get("speed").asDouble() >= previousSpeed);
+            previousSpeed = ship.get("speed").asDouble();
+        }
+    }
+
+    //test2
+    @Test
+    public void exportNdjsonMatchesGetTest() throws Exception {
+        String line = mockMvc.perform(get("/rest/ships/export?name=Daedalus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().trim();
+        String ship = mockMvc.perform(get("/rest/ships/2").accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Строка выгрузки должна совпадать с GET /rest/ships/{id}.", mapper.readTree(ship), mapper.readTree(line));
+    }
+
+    //test3
+    @Test
+    public void exportCsvTest() throws Exception {
+        mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON.replace("123456789", "Serenity, \\\"II\\\"").replace("Earth", "Miranda")))
+                .andExpect(status().isOk());
+
+        String[] lines = mockMvc.perform(get("/rest/ships/export?format=CSV&planet=Miranda"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals("Неверное количество строк CSV.", 2, lines.length);
+        assertEquals("Первая строка CSV - заголовок.", "id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating", lines[0]);
+        // prodDate is stored as a date, so only the columns around it are compared
+        assertEquals("Значения с запятыми и кавычками должны экранироваться.", true,
+                lines[1].startsWith("41,\"Serenity, \"\"II\"\"\",Miranda,MILITARY,"));
+        assertEquals("Неверная строка CSV.", true, lines[1].endsWith(",false,0.8,14,12.8"));
+    }
+
+    //test4
+    @Test
+    public void exportUnknownFormatTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/export?format=XML"))
+                .andExpect(status().isBadRequest());
+    }
+}
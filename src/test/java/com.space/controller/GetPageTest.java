@@ -0,0 +1,69 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetPageTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void getPageWithoutFiltersReturnsFirstPageAndTotal() throws Exception {
+        JsonNode page = getPage("/rest/ships/page");
+
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+        assertEquals("Возвращается не правильная страница при запросе GET /rest/ships/page.",
+                expected, mapper.readValue(page.get("ships").toString(), typeReference));
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/ships/page.",
+                testsHelper.getAllShips().size(), page.get("count").asInt());
+    }
+
+    //test2
+    @Test
+    public void getPageWithFiltersNamePageNumber() throws Exception {
+        JsonNode page = getPage("/rest/ships/page?name=ra&pageNumber=1");
+
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByName("ra", testsHelper.getAllShips());
+        assertEquals("Возвращается не правильная страница при запросе GET /rest/ships/page с параметрами name и pageNumber.",
+                testsHelper.getShipInfosByPage(1, 3, filtered), mapper.readValue(page.get("ships").toString(), typeReference));
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/ships/page с параметрами name и pageNumber.",
+                filtered.size(), page.get("count").asInt());
+    }
+
+    //test3
+    @Test
+    public void getPageBeyondLastPageKeepsTotal() throws Exception {
+        JsonNode page = getPage("/rest/ships/page?shipType=MERCHANT&isUsed=true&pageNumber=20");
+
+        assertEquals("Страница за пределами выборки должна быть пустой.", 0, page.get("ships").size());
+        assertEquals("Возвращается не правильное количество для страницы за пределами выборки.",
+                testsHelper.getShipInfosByIsUsed(true,
+                        testsHelper.getShipInfosByShipType(ShipType.MERCHANT,
+                                testsHelper.getAllShips())).size(),
+                page.get("count").asInt());
+    }
+
+    private JsonNode getPage(String url) throws Exception {
+        String content = mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
@@ -2,17 +2,24 @@ package com.space.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.StatementRecorder;
 import com.space.controller.utils.TestsHelper;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.springframework.test.util.AssertionErrors.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@ContextConfiguration(classes = StatementRecorder.class)
 public class GetShipTest extends AbstractTest {
 
+    @Autowired
+    private StatementRecorder recorder;
+
     //test1
     @Test
     public void getShipByIdEqualZeroTest() throws Exception {
@@ -51,4 +58,20 @@ public class GetShipTest extends AbstractTest {
         ShipInfoTest actual = mapper.readValue(contentAsString, ShipInfoTest.class);
         assertEquals("Вернулся неправильный объект при запросе GET /rest/ships/{id}", expected, actual);
     }
+
+    //test5
+    @Test
+    public void getShipByIdStatementBudgetTest() throws Exception {
+        recorder.clear();
+        mockMvc.perform(get("/rest/ships/14")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+        recorder.assertAtMost(1, "GET /rest/ships/{id}");
+
+        recorder.clear();
+        mockMvc.perform(get("/rest/ships/410")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+        recorder.assertAtMost(1, "GET /rest/ships/{id} для несуществующего корабля");
+    }
 }
\ No newline at end of file
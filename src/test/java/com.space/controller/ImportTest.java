@@ -0,0 +1,176 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.service.ShipImportStatus;
+import com.space.service.ShipImporter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ImportTest extends AbstractTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    private ShipImporter shipImporter;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void csvExportImportRoundTripTest() throws Exception {
+        String csv = getContent("/rest/ships/export?format=CSV");
+        Path file = folder.newFile("ships.csv").toPath();
+        Files.write(file, (csv + "7,Broken,Mars,MILITARY,32998274577071,false,1.5,14,0\n").getBytes(StandardCharsets.UTF_8));
+
+        ShipImportStatus status = shipImporter.run(file, ShipExportFormat.CSV);
+
+        assertEquals("Импорт должен завершиться.", ShipImportStatus.State.COMPLETED, status.getState());
+        assertEquals("Неверное количество импортированных кораблей.", 40L, status.getImported());
+        assertEquals("Неверное количество отклоненных строк.", 1L, status.getRejected());
+        assertEquals("Ошибка должна указывать номер строки.", "line 42: speed must be between 0.01 and 0.99", status.getErrors().get(0));
+        assertEquals("Импортированные корабли должны сохраняться.", "80", getContent("/rest/ships/count"));
+        assertEquals("Импортированные корабли должны быть видны фильтрам.", "20", getContent("/rest/ships/count?planet=Saturn"));
+    }
+
+    //test2
+    @Test
+    public void importResumesBehindCheckpointTest() throws Exception {
+        Path file = folder.newFile("ships.ndjson").toPath();
+        Files.write(file, ships(0, 5), StandardCharsets.UTF_8);
+        assertEquals("Неверное количество импортированных кораблей.", 5L, shipImporter.run(file, ShipExportFormat.NDJSON).getImported());
+
+        Files.write(file, ships(5, 3), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        ShipImportStatus status = shipImporter.run(file, ShipExportFormat.NDJSON);
+
+        assertEquals("Повторный импорт должен продолжаться с контрольной точки.", 8L, status.getImported());
+        assertEquals("Повторный импорт должен продолжаться с контрольной точки.", "48", getContent("/rest/ships/count"));
+    }
+
+    //test3
+    @Test
+    public void parallelChunksAreWrittenInFileOrderTest() throws Exception {
+        Path file = folder.newFile("fleet.ndjson").toPath();
+        Files.write(file, ships(0, 1000), StandardCharsets.UTF_8);
+
+        ShipImportStatus status;
+        ReflectionTestUtils.setField(shipImporter, "chunkBytes", 1024);
+        try {
+            status = shipImporter.run(file, ShipExportFormat.NDJSON);
+        } finally {
+            ReflectionTestUtils.setField(shipImporter, "chunkBytes", 1048576);
+        }
+
+        assertEquals("Импорт должен завершиться.", ShipImportStatus.State.COMPLETED, status.getState());
+        assertEquals("Неверное количество импортированных кораблей.", 1000L, status.getImported());
+        JsonNode ships = mapper.readTree(getContent("/rest/ships?name=Imported&pageSize=1000"));
+        for (int i = 0; i < ships.size(); i++) {
+            assertEquals("Корабли должны записываться в порядке файла.", "Imported " + i, ships.get(i).get("name").asText());
+        }
+    }
+
+    //test4
+    @Test
+    public void importStatusEndpointTest() throws Exception {
+        Path file = folder.newFile("one.ndjson").toPath();
+        Files.write(file, ships(0, 1), StandardCharsets.UTF_8);
+        shipImporter.run(file, ShipExportFormat.NDJSON);
+
+        JsonNode statuses = mapper.readTree(getContent("/rest/admin/imports"));
+        boolean found = false;
+        for (JsonNode status : statuses) {
+            if (status.get("source").asText().equals(file.toAbsolutePath().toString())) {
+                found = true;
+                assertEquals("Неверное состояние импорта.", "COMPLETED", status.get("state").asText());
+            }
+        }
+        assertEquals("Импорт должен отображаться в /rest/admin/imports.", true, found);
+    }
+
+    //test5
+    @Test
+    public void nullRecordIsRejectedTest() throws Exception {
+        Path file = folder.newFile("nulls.ndjson").toPath();
+        List<String> lines = ships(0, 2);
+        lines.add("null");
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        ShipImportStatus status = shipImporter.run(file, ShipExportFormat.NDJSON);
+
+        assertEquals("Импорт должен завершиться.", ShipImportStatus.State.COMPLETED, status.getState());
+        assertEquals("Неверное количество импортированных кораблей.", 2L, status.getImported());
+        assertEquals("Неверное количество отклоненных строк.", 1L, status.getRejected());
+        assertEquals("Ошибка должна указывать номер строки.", "line 3: record is null", status.getErrors().get(0));
+    }
+
+    //test6
+    @Test
+    public void importEndpointStaysInImportDirectoryTest() throws Exception {
+        Files.write(folder.newFile("outside.ndjson").toPath(), ships(0, 1), StandardCharsets.UTF_8);
+        Path directory = folder.newFolder("imports").toPath();
+        Files.write(directory.resolve("inside.ndjson"), ships(0, 1), StandardCharsets.UTF_8);
+
+        mockMvc.perform(post("/rest/admin/imports?path=inside.ndjson"))
+                .andExpect(status().isBadRequest());
+
+        ReflectionTestUtils.setField(shipImporter, "importDirectory", directory);
+        try {
+            mockMvc.perform(post("/rest/admin/imports?path=../outside.ndjson"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/rest/admin/imports?path=" + folder.getRoot().toPath().resolve("outside.ndjson")))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/rest/admin/imports?path=missing.ndjson"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/rest/admin/imports?path=inside.ndjson"))
+                    .andExpect(status().isOk());
+            // let the queued import finish before the next test reloads the table
+            String source = directory.resolve("inside.ndjson").toString();
+            for (int i = 0; i < 100 && !completed(source); i++) {
+                Thread.sleep(50);
+            }
+            assertEquals("Импорт из каталога импорта должен завершиться.", true, completed(source));
+        } finally {
+            ReflectionTestUtils.setField(shipImporter, "importDirectory", null);
+        }
+    }
+
+    private boolean completed(String source) {
+        for (ShipImportStatus status : shipImporter.getStatuses()) {
+            if (status.getSource().equals(source) && status.getState() == ShipImportStatus.State.COMPLETED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> ships(int from, int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            lines.add("{\"name\":\"Imported " + i + "\",\"planet\":\"Earth\",\"shipType\":\"MILITARY\","
+                    + "\"prodDate\":32998274577071,\"isUsed\":false,\"speed\":0.8,\"crewSize\":14}");
+        }
+        return lines;
+    }
+
+    private String getContent(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class KeysetPagingTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void walkingCursorsReturnsSameShipsAsOffsetPaging() throws Exception {
+        for (ShipOrder order : ShipOrder.values()) {
+            String filter = "?shipType=MILITARY&order=" + order.name();
+            List<ShipInfoTest> expected = mapper.readValue(mockMvc.perform(get("/rest/ships" + filter + "&pageSize=1000")
+                    .accept(MediaType.APPLICATION_JSON_UTF8))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), typeReference);
+
+            List<ShipInfoTest> actual = new ArrayList<>();
+            String cursor = null;
+            do {
+                MvcResult result = mockMvc.perform(get("/rest/ships" + filter + "&pageSize=4" + (cursor == null ? "" : "&cursor=" + cursor))
+                        .accept(MediaType.APPLICATION_JSON_UTF8))
+                        .andExpect(status().isOk())
+                        .andReturn();
+                actual.addAll(mapper.readValue(result.getResponse().getContentAsString(), typeReference));
+                cursor = result.getResponse().getHeader(MyRestController.NEXT_CURSOR_HEADER);
+            } while (cursor != null);
+
+            assertEquals("Постраничный обход по курсору не совпадает с обычной выборкой для order=" + order + ".", expected, actual);
+        }
+    }
+
+    //test2
+    @Test
+    public void malformedCursorTest() throws Exception {
+        mockMvc.perform(get("/rest/ships?cursor=not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test3
+    @Test
+    public void cursorOfAnotherOrderTest() throws Exception {
+        String cursor = mockMvc.perform(get("/rest/ships?order=SPEED")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(MyRestController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/rest/ships?order=RATING&cursor=" + cursor)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test4
+    @Test
+    public void cursorWithoutOrderNamesDefaultOrderTest() throws Exception {
+        String cursor = mockMvc.perform(get("/rest/ships?order=SPEED")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(MyRestController.NEXT_CURSOR_HEADER);
+
+        MvcResult result = mockMvc.perform(get("/rest/ships?cursor=" + cursor)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertEquals("Ошибка должна называть порядок по умолчанию.", "Cursor does not match order ID",
+                result.getResolvedException().getMessage());
+    }
+}
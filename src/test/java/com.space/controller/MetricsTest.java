@@ -0,0 +1,70 @@
+package com.space.controller;
+
+import org.junit.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MetricsTest extends AbstractTest {
+
+    private static final Pattern SAMPLE = Pattern.compile("[a-z_]+\\{.*} [0-9.]+(E-?[0-9]+)?");
+
+    //test1
+    @Test
+    public void requestsAreCountedPerEndpointAndStatusTest() throws Exception {
+        // the context, and with it the metrics, is shared with other test classes
+        String initial = getContent("/rest/metrics");
+        mockMvc.perform(get("/rest/ships/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/2")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/999")).andExpect(status().isNotFound());
+        String metrics = getContent("/rest/metrics");
+
+        String labels = "method=\"GET\",path=\"/rest/ships/{id}\"";
+        assertEquals("Успешные запросы должны считаться по шаблону пути.", 2,
+                value(metrics, "cosmoport_http_requests_total{" + labels + ",status=\"2xx\"}")
+                        - value(initial, "cosmoport_http_requests_total{" + labels + ",status=\"2xx\"}"));
+        assertEquals("Ошибки должны считаться по классу статуса.", 1,
+                value(metrics, "cosmoport_http_requests_total{" + labels + ",status=\"4xx\"}")
+                        - value(initial, "cosmoport_http_requests_total{" + labels + ",status=\"4xx\"}"));
+        assertEquals("Гистограмма должна учитывать все запросы.", 3,
+                value(metrics, "cosmoport_http_request_duration_seconds_count{" + labels + "}")
+                        - value(initial, "cosmoport_http_request_duration_seconds_count{" + labels + "}"));
+        assertEquals("Последний интервал гистограммы должен совпадать с количеством.",
+                value(metrics, "cosmoport_http_request_duration_seconds_count{" + labels + "}"),
+                value(metrics, "cosmoport_http_request_duration_seconds_bucket{" + labels + ",le=\"+Inf\"}"));
+    }
+
+    //test2
+    @Test
+    public void queriesAreTimedPerOrderAndFilterShapeTest() throws Exception {
+        String series = "cosmoport_ship_query_duration_seconds_count{query=\"list\",order=\"SPEED\",filter=\"planet+minCrewSize\"}";
+        long initial = value(getContent("/rest/metrics"), series);
+        // different values of the same shape, so the query cache does not answer the second one
+        getContent("/rest/ships?order=SPEED&planet=Mars&minCrewSize=10");
+        getContent("/rest/ships?order=SPEED&planet=Earth&minCrewSize=20");
+        MvcResult result = mockMvc.perform(get("/rest/metrics")).andExpect(status().isOk()).andReturn();
+        String metrics = result.getResponse().getContentAsString();
+
+        assertTrue("Метрики должны отдаваться в текстовом формате Prometheus.",
+                result.getResponse().getContentType().startsWith("text/plain"));
+        assertEquals("Запросы должны учитываться по сортировке и набору фильтров.", 2, value(metrics, series) - initial);
+        for (String line : metrics.split("\n")) {
+            assertTrue("Неверная строка метрик: " + line, line.startsWith("# ") || SAMPLE.matcher(line).matches());
+        }
+    }
+
+    private static long value(String metrics, String series) {
+        Matcher matcher = Pattern.compile("^" + Pattern.quote(series) + " (\\d+)$", Pattern.MULTILINE).matcher(metrics);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private String getContent(String url) throws Exception {
+        return mockMvc.perform(get(url)).andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.space.controller;
+
+import com.space.controller.utils.StatementRecorder;
+import com.space.service.CacheStatistics;
+import com.space.service.ShipQueryCache;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ContextConfiguration(classes = StatementRecorder.class)
+public class QueryCacheTest extends AbstractTest {
+
+    @Autowired
+    private StatementRecorder recorder;
+    @Autowired
+    private ShipQueryCache shipQueryCache;
+
+    //test1
+    @Test
+    public void repeatedQueryDoesNotTouchDatabase() throws Exception {
+        // the context, and with it the cache counters, is shared with other test classes
+        CacheStatistics initial = shipQueryCache.getStatistics();
+        String first = getContent("/rest/ships/page?shipType=MILITARY&minSpeed=0.3&order=RATING");
+        recorder.clear();
+        String second = getContent("/rest/ships/page?order=RATING&minSpeed=0.30&shipType=MILITARY");
+
+        assertEquals("Повторный запрос должен возвращать тот же результат.", first, second);
+        assertEquals("Повторный запрос не должен обращаться к базе данных.", 0, recorder.count());
+        CacheStatistics statistics = shipQueryCache.getStatistics();
+        assertEquals(1, statistics.getHits() - initial.getHits());
+        assertEquals(1, statistics.getMisses() - initial.getMisses());
+    }
+
+    //test2
+    @Test
+    public void updateEvictsOnlyMatchingQueries() throws Exception {
+        long initialInvalidations = shipQueryCache.getStatistics().getInvalidations();
+        getContent("/rest/ships/count?shipType=MILITARY");
+        getContent("/rest/ships/count?shipType=MERCHANT");
+        String transportCount = getContent("/rest/ships/count?shipType=TRANSPORT");
+
+        // ship 4 is MILITARY, the update makes it MERCHANT
+        mockMvc.perform(post("/rest/ships/4")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"shipType\": \"MERCHANT\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, shipQueryCache.getStatistics().getInvalidations() - initialInvalidations);
+        recorder.clear();
+        mockMvc.perform(get("/rest/ships/count?shipType=TRANSPORT"))
+                .andExpect(content().string(transportCount));
+        assertEquals("Незатронутый запрос должен остаться в кэше.", 0, recorder.count());
+        mockMvc.perform(get("/rest/ships/count?shipType=MERCHANT"))
+                .andExpect(content().string("16"));
+    }
+
+    //test3
+    @Test
+    public void textFilteredQueriesAreEvictedRegardlessOfText() throws Exception {
+        long initialInvalidations = shipQueryCache.getStatistics().getInvalidations();
+        getContent("/rest/ships/count?name=XYZ&shipType=MILITARY");
+        getContent("/rest/ships/count?name=XYZ&shipType=TRANSPORT");
+
+        // ship 4 is MILITARY; whether "xyz" matches "XYZ" is up to the collation
+        mockMvc.perform(post("/rest/ships/4")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"xyz\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, shipQueryCache.getStatistics().getInvalidations() - initialInvalidations);
+        recorder.clear();
+        getContent("/rest/ships/count?name=XYZ&shipType=TRANSPORT");
+        assertEquals("Запрос по другому типу должен остаться в кэше.", 0, recorder.count());
+    }
+
+    private String getContent(String url) throws Exception {
+        return mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.model.ShipRatingCheckpoint;
+import com.space.repository.ShipRatingCheckpointRepository;
+import com.space.service.ShipRatingJobStatus;
+import com.space.service.ShipRatingRecomputer;
+import com.space.service.ShipRules;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RatingRecomputeTest extends AbstractTest {
+
+    @Autowired
+    private ShipRatingRecomputer shipRatingRecomputer;
+    @Autowired
+    private ShipRatingCheckpointRepository checkpointRepository;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @After
+    public void restoreReferenceYear() {
+        ReflectionTestUtils.setField(shipRatingRecomputer, "referenceYear", ShipRules.CURRENT_YEAR);
+        ReflectionTestUtils.setField(shipRatingRecomputer, "chunkSize", 1000);
+        ReflectionTestUtils.setField(shipRatingRecomputer, "maxRowsPerSecond", 5000);
+    }
+
+    //test1
+    @Test
+    public void recomputeAgainstNewReferenceYearTest() throws Exception {
+        assertEquals("Неверный рейтинг до пересчета.", 1.31, rating(1));
+        assertEquals("Неверное количество кораблей до пересчета.", "1", getContent("/rest/ships/count?minRating=24"));
+
+        ShipRatingJobStatus status = shipRatingRecomputer.run(3029);
+
+        assertEquals("Пересчет должен завершиться.", ShipRatingJobStatus.State.COMPLETED, status.getState());
+        assertEquals("Пересчет должен пройти все корабли.", 40L, status.getScanned());
+        assertEquals("Пересчет должен пройти все корабли.", 41L, status.getNextId());
+        assertEquals("Кэш кораблей должен видеть новый рейтинг.", 0.94, rating(1));
+        assertEquals("Кэш кораблей должен видеть новый рейтинг.", 5.66, rating(40));
+        assertEquals("Кэш запросов должен видеть новый рейтинг.", "0", getContent("/rest/ships/count?minRating=24"));
+    }
+
+    //test2
+    @Test
+    public void recomputeResumesBehindCheckpointTest() throws Exception {
+        checkpointRepository.save(new ShipRatingCheckpoint(3029, 21L, 40L, 0L, null));
+        ReflectionTestUtils.setField(shipRatingRecomputer, "chunkSize", 5);
+
+        ShipRatingJobStatus status = shipRatingRecomputer.run(3029);
+
+        assertEquals("Пересчет должен завершиться.", ShipRatingJobStatus.State.COMPLETED, status.getState());
+        assertEquals("Пересчет должен продолжаться с контрольной точки.", 20L, status.getScanned());
+        assertEquals("Корабли до контрольной точки не пересчитываются.", 1.31, rating(1));
+        assertEquals("Корабли после контрольной точки пересчитываются.", 5.66, rating(40));
+        assertTrue("Контрольная точка должна отмечать завершение.",
+                checkpointRepository.findById(3029).get().getCompletedAt() != null);
+    }
+
+    //test3
+    @Test
+    public void recomputeIsThrottledAcrossWorkersTest() {
+        ReflectionTestUtils.setField(shipRatingRecomputer, "chunkSize", 5);
+        ReflectionTestUtils.setField(shipRatingRecomputer, "maxRowsPerSecond", 100);
+
+        ShipRatingJobStatus status = shipRatingRecomputer.run(3029);
+
+        assertEquals("Пересчет должен завершиться.", ShipRatingJobStatus.State.COMPLETED, status.getState());
+        assertTrue("40 кораблей при 100 строках в секунду занимают не меньше 350 мс, а заняли "
+                + status.getElapsedMillis(), status.getElapsedMillis() >= 350);
+    }
+
+    //test4
+    @Test
+    public void recomputeEndpointTest() throws Exception {
+        mockMvc.perform(post("/rest/admin/ratings?referenceYear=3000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/admin/ratings?referenceYear=3029"))
+                .andExpect(status().isOk());
+
+        String state = null;
+        for (int i = 0; i < 100 && !"COMPLETED".equals(state); i++) {
+            Thread.sleep(100);
+            state = mapper.readTree(getContent("/rest/admin/ratings")).get("state").asText();
+        }
+
+        assertEquals("Пересчет должен завершиться.", "COMPLETED", state);
+        assertEquals("Неверный рейтинг после пересчета.", 5.66, rating(40));
+    }
+
+    private double rating(long id) throws Exception {
+        return mapper.readTree(getContent("/rest/ships/" + id)).get("rating").asDouble();
+    }
+
+    private String getContent(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+public class ServerTimingTest extends AbstractTest {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    @Autowired
+    private ShipTraceInterceptor shipTraceInterceptor;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @After
+    public void disableTracing() {
+        ReflectionTestUtils.setField(shipTraceInterceptor, "enabled", false);
+    }
+
+    //test1
+    @Test
+    public void untracedRequestHasNoTimingTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships/page?planet=Mars")).andReturn().getResponse();
+
+        assertNull("Без трассировки заголовок Server-Timing не нужен.", response.getHeader(SERVER_TIMING));
+        assertFalse("Без debug=true блок debug не нужен.", response.getContentAsString().contains("debug"));
+    }
+
+    //test2
+    @Test
+    public void debugRequestReportsPhasesTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships/page?shipType=MILITARY&order=SPEED&debug=true"))
+                .andReturn().getResponse();
+        String timing = response.getHeader(SERVER_TIMING);
+
+        assertTrue("Промах кэша должен быть виден: " + timing, timing.startsWith("cache;desc=miss;dur="));
+        for (String phase : new String[]{"db;dur=", "count;dur=", "serialize;dur=", "total;dur="}) {
+            assertTrue("В Server-Timing нет фазы " + phase + ": " + timing, timing.contains(phase));
+        }
+        JsonNode debug = mapper.readTree(response.getContentAsString()).get("debug");
+        assertEquals(false, debug.get("cacheHit").asBoolean());
+        assertEquals(1, debug.get("phases").get("db").get("calls").asInt());
+        assertEquals(1, debug.get("phases").get("count").get("calls").asInt());
+
+        response = mockMvc.perform(get("/rest/ships/page?shipType=MILITARY&order=SPEED&debug=true")).andReturn().getResponse();
+        timing = response.getHeader(SERVER_TIMING);
+        assertTrue("Попадание в кэш должно быть видно: " + timing, timing.startsWith("cache;desc=hit;dur="));
+        assertFalse("Попадание в кэш не обращается к базе: " + timing, timing.contains("db;"));
+    }
+
+    //test3
+    @Test
+    public void enabledTracingCoversEveryRequestTest() throws Exception {
+        ReflectionTestUtils.setField(shipTraceInterceptor, "enabled", true);
+
+        MockHttpServletResponse count = mockMvc.perform(get("/rest/ships/count?name=a")).andReturn().getResponse();
+        assertTrue(count.getHeader(SERVER_TIMING), count.getHeader(SERVER_TIMING).contains("index;dur="));
+        assertEquals("Ответ не должен меняться из-за буферизации.", String.valueOf(count.getContentAsString().length()),
+                count.getHeader("Content-Length"));
+
+        MockHttpServletResponse deleted = mockMvc.perform(delete("/rest/ships/3")).andReturn().getResponse();
+        assertEquals(200, deleted.getStatus());
+        assertTrue("Ответ без тела тоже получает Server-Timing.", deleted.getHeader(SERVER_TIMING).startsWith("total;dur="));
+
+        MockHttpServletResponse page = mockMvc.perform(get("/rest/ships/page")).andReturn().getResponse();
+        assertFalse("Блок debug только по запросу.", page.getContentAsString().contains("debug"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.service.ShipSlowLog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+public class SlowLogTest extends AbstractTest {
+
+    @Autowired
+    private ShipSlowLog shipSlowLog;
+
+    private long thresholdMillis;
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void logEveryRequest() {
+        thresholdMillis = shipSlowLog.getThresholdMillis();
+        ReflectionTestUtils.setField(shipSlowLog, "thresholdMillis", 0L);
+        shipSlowLog.clear();
+    }
+
+    @After
+    public void restoreThreshold() {
+        ReflectionTestUtils.setField(shipSlowLog, "thresholdMillis", thresholdMillis);
+        shipSlowLog.clear();
+    }
+
+    //test1
+    @Test
+    public void slowPageReportsQueryTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships/page?planet=Ear&isUsed=false&order=DATE&pageSize=2"))
+                .andReturn().getResponse();
+        assertNull("Журнал медленных запросов не должен добавлять Server-Timing.", response.getHeader("Server-Timing"));
+
+        JsonNode log = mapper.readTree(getContent("/rest/admin/slow-requests"));
+        assertEquals(0, log.get("thresholdMillis").asLong());
+        JsonNode request = log.get("requests").get(0);
+        assertEquals("GET", request.get("method").asText());
+        assertEquals("/rest/ships/page?planet=Ear&isUsed=false&order=DATE&pageSize=2", request.get("uri").asText());
+        assertEquals(200, request.get("status").asInt());
+        assertTrue("Должны быть времена фаз.", request.get("phases").has("db"));
+
+        JsonNode query = request.get("queries").get(0);
+        assertEquals("page", query.get("query").asText());
+        assertEquals("DATE", query.get("order").asText());
+        assertEquals("Фильтры должны быть в нормализованном виде.", "{\"planet\":\"Ear\",\"isUsed\":false}",
+                query.get("filter").toString());
+        assertEquals(2, query.get("rowsReturned").asInt());
+        assertTrue("Найдено не меньше, чем возвращено.", query.get("rowsMatched").asLong() >= 2);
+        assertTrue("Должен быть SQL запроса: " + query.get("sql"), query.get("sql").size() >= 1);
+        assertTrue(query.get("sql").get(0).asText(), query.get("sql").get(0).asText().contains("ship"));
+    }
+
+    //test2
+    @Test
+    public void logKeepsNewestRequestsTest() throws Exception {
+        getContent("/rest/ships/count?minCrewSize=100");
+        getContent("/rest/ships/1");
+
+        JsonNode requests = mapper.readTree(getContent("/rest/admin/slow-requests")).get("requests");
+        assertEquals("Новые запросы должны быть первыми.", "/rest/ships/1", requests.get(0).get("uri").asText());
+        assertEquals("Выборка одного корабля идёт вне запросов по фильтрам.", 1, requests.get(0).get("sql").size());
+        JsonNode count = requests.get(1).get("queries").get(0);
+        assertEquals("count", count.get("query").asText());
+        assertTrue("У подсчёта нет возвращённых строк.", count.get("rowsReturned").isNull());
+
+        ReflectionTestUtils.setField(shipSlowLog, "thresholdMillis", 60_000L);
+        getContent("/rest/ships/2");
+        assertEquals("Быстрые запросы не попадают в журнал.", 3,
+                mapper.readTree(getContent("/rest/admin/slow-requests")).get("recorded").asInt());
+    }
+
+    private String getContent(String url) throws Exception {
+        return mockMvc.perform(get(url)).andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.service.ShipTextIndex;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SubstringSearchTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void longSubstringsMatchContainsSemantics() throws Exception {
+        String[][] queries = {{"ion", null}, {"Star", null}, {null, "tur"}, {null, "ercu"}, {"or", "Sat"},
+                {"Explorer", "Saturn"}, {"xyz", null}, {"star", null}, {"IX H", null}};
+        for (String[] query : queries) {
+            List<ShipInfoTest> expected = testsHelper.getAllShips();
+            String url = "/rest/ships?pageSize=100";
+            if (query[0] != null) {
+                expected = testsHelper.getShipInfosByName(query[0], expected);
+                url += "&name=" + query[0];
+            }
+            if (query[1] != null) {
+                expected = testsHelper.getShipInfosByPlanet(query[1], expected);
+                url += "&planet=" + query[1];
+            }
+            assertEquals("Возвращается не правильный результат при запросе GET " + url, expected, getShips(url));
+        }
+    }
+
+    //test2
+    @Test
+    public void indexFollowsCreateUpdateDelete() throws Exception {
+        String created = mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON.replace("123456789", "Zyxwv").replace("Earth", "Pluto")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long id = mapper.readValue(created, ShipInfoTest.class).id;
+        assertEquals("Созданный корабль не находится по подстроке имени.", 1, getShips("/rest/ships?name=yxw").size());
+
+        mockMvc.perform(post("/rest/ships/" + id)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"Qwerty\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Старое имя не должно находиться после обновления.", 0, getShips("/rest/ships?name=yxw").size());
+        assertEquals("Новое имя должно находиться после обновления.", 1, getShips("/rest/ships?name=wer&planet=lut").size());
+
+        mockMvc.perform(delete("/rest/ships/" + id)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+        assertEquals("Удаленный корабль не должен находиться.", 0, getShips("/rest/ships?name=wer").size());
+    }
+
+    //test3
+    @Test
+    public void rowsCommittedBeforeNotificationAreFound() throws Exception {
+        // builds the index
+        assertEquals("Корабль еще не создан.", 0, getShips("/rest/ships?name=yxw").size());
+
+        ShipTextIndex shipTextIndex = context.getBean(ShipTextIndex.class);
+        Ship ship = new Ship();
+        ship.setId(1000L);
+        ship.setName("Zyxwv");
+        ship.setPlanet("Pluto");
+        List<Ship> written = Collections.singletonList(ship);
+        shipTextIndex.writeStarted(written);
+        try {
+            // committed, but the listeners have not been told yet
+            new JdbcTemplate(context.getBean(DataSource.class)).update("INSERT INTO ship(id, name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) "
+                    + "VALUES (1000, 'Zyxwv', 'Pluto', 'MERCHANT', '3000-01-01', false, 0.5, 10, 1.0)");
+            assertEquals("Закоммиченный корабль должен находиться до уведомления индекса.", 1,
+                    getShips("/rest/ships?name=Zyxwv").size());
+            assertEquals("Записываемый корабль должен быть среди кандидатов.", Collections.singleton(1000L),
+                    shipTextIndex.candidates("yxw", null));
+            assertEquals("Запись другого корабля не должна отключать индекс.", false,
+                    shipTextIndex.candidates("Orion", null) == null);
+        } finally {
+            shipTextIndex.writeFinished(written);
+        }
+    }
+
+    private List<ShipInfoTest> getShips(String url) throws Exception {
+        String content = mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, typeReference);
+    }
+}
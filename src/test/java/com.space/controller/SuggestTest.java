@@ -0,0 +1,66 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SuggestTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void suggestPlanetsOrderedByCount() throws Exception {
+        JsonNode suggestions = suggest("/rest/ships/suggest?field=planet&prefix=");
+
+        assertEquals("Первой подсказкой должна быть самая частая планета.", "Saturn", suggestions.get(0).get("value").asText());
+        assertEquals("Неверное количество кораблей у подсказки.", 10, suggestions.get(0).get("count").asInt());
+        assertEquals("Неверное количество подсказок.", 8, suggestions.size());
+    }
+
+    //test2
+    @Test
+    public void suggestNamesByPrefixWithLimit() throws Exception {
+        JsonNode suggestions = suggest("/rest/ships/suggest?field=name&prefix=A&limit=2");
+
+        assertEquals("Неверное количество подсказок.", 2, suggestions.size());
+        assertEquals("При равном количестве подсказки упорядочены по значению.", "Amaterasu", suggestions.get(0).get("value").asText());
+        assertEquals("При равном количестве подсказки упорядочены по значению.", "Arcadia", suggestions.get(1).get("value").asText());
+    }
+
+    //test3
+    @Test
+    public void suggestFollowsCreate() throws Exception {
+        mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON.replace("123456789", "Serenity")))
+                .andExpect(status().isOk());
+
+        JsonNode suggestions = suggest("/rest/ships/suggest?field=name&prefix=Ser");
+        assertEquals("Новый корабль должен учитываться в подсказках.", 2, suggestions.get(0).get("count").asInt());
+    }
+
+    //test4
+    @Test
+    public void suggestUnknownFieldTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/suggest?field=shipType&prefix=M")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode suggest(String url) throws Exception {
+        String content = mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
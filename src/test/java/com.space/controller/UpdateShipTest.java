@@ -2,10 +2,13 @@ package com.space.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.StatementRecorder;
 import com.space.controller.utils.TestsHelper;
 import com.space.model.ShipType;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.springframework.test.util.AssertionErrors.assertEquals;
@@ -13,8 +16,12 @@ import static org.springframework.test.util.AssertionErrors.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@ContextConfiguration(classes = StatementRecorder.class)
 public class UpdateShipTest extends AbstractTest {
 
+    @Autowired
+    private StatementRecorder recorder;
+
     private TestsHelper testsHelper = new TestsHelper();
     private ObjectMapper mapper = new ObjectMapper();
 
@@ -188,4 +195,16 @@ public class UpdateShipTest extends AbstractTest {
 
         assertEquals("При запросе POST /rest/ships/{id} корабль должен обновляться и рейтинг пересчитываться", expected, actual);
     }
+
+    //test12
+    @Test
+    public void updateShipStatementBudgetTest() throws Exception {
+        recorder.clear();
+        mockMvc.perform(post("/rest/ships/7")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"Budget\", \"speed\": 0.5}"))
+                .andExpect(status().isOk());
+        recorder.assertAtMost(2, "POST /rest/ships/{id}");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.space.controller.utils;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Wraps the context's {@link DataSource} and records every JDBC statement it runs, together with
+ * its bound parameters. Add it to a test's {@code @ContextConfiguration} classes.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+    private final List<RecordedStatement> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return proxy(bean, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection ? recordingConnection((Connection) result) : result;
+            });
+        }
+        return bean;
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    public List<RecordedStatement> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    /**
+     * Fails when more than {@code budget} statements were recorded since the last {@link #clear()}.
+     */
+    public void assertAtMost(int budget, String operation) {
+        List<RecordedStatement> recorded = getStatements();
+        if (recorded.size() > budget) {
+            StringBuilder message = new StringBuilder(operation + " превышает бюджет в " + budget + " SQL-запрос(а), выполнено " + recorded.size() + ":");
+            for (RecordedStatement statement : recorded) {
+                message.append("\n    ").append(statement);
+            }
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    private Connection recordingConnection(Connection connection) {
+        return (Connection) proxy(connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            if (result instanceof PreparedStatement && method.getName().startsWith("prepare")) {
+                RecordedStatement statement = new RecordedStatement((String) args[0]);
+                statements.add(statement);
+                return recordingStatement((PreparedStatement) result, statement);
+            }
+            if (result instanceof Statement) {
+                return recordingStatement((Statement) result, null);
+            }
+            return result;
+        });
+    }
+
+    private Statement recordingStatement(Statement jdbcStatement, RecordedStatement recorded) {
+        return (Statement) proxy(jdbcStatement, (target, method, args) -> {
+            if (recorded != null && method.getName().startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                recorded.parameters.put((Integer) args[0], args[1]);
+            } else if (recorded == null && method.getName().startsWith("execute") && args != null && args[0] instanceof String) {
+                statements.add(new RecordedStatement((String) args[0]));
+            }
+            return method.invoke(target, args);
+        });
+    }
+
+    private interface Invocation {
+        Object invoke(Object target, Method method, Object[] args) throws Exception;
+    }
+
+    private static Object proxy(Object target, Invocation invocation) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfaces(target);
+        return Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            } else if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return invocation.invoke(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+    }
+
+    public static class RecordedStatement {
+        private final String sql;
+        private final TreeMap<Integer, Object> parameters = new TreeMap<>();
+
+        RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getParameters() {
+            return new ArrayList<>(parameters.values());
+        }
+
+        @Override
+        public String toString() {
+            return sql + " " + parameters.values();
+        }
+    }
+}
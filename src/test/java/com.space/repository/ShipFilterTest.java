@@ -0,0 +1,52 @@
+package com.space.repository;
+
+import com.space.config.AppConfig;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ActiveProfiles("dev")
+@ContextConfiguration(classes = AppConfig.class)
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ShipFilterTest {
+
+    // the filter combinations used by GetCountTest and GetAllTest
+    private static final ShipFilter[] FILTERS = {
+            new ShipFilter(null, null, null, null, null, null, null, null, null, null, null, null),
+            new ShipFilter(null, null, null, null, null, null, 0.3, null, 100, null, 0.5, null),
+            new ShipFilter("nt", null, null, 32188140000000L, null, null, null, null, null, null, null, 3.),
+            new ShipFilter(null, null, ShipType.MERCHANT, null, null, true, null, null, null, null, null, null),
+            new ShipFilter(null, null, ShipType.MILITARY, null, null, null, null, null, null, 400, null, null),
+            new ShipFilter(null, "us", null, null, null, null, null, null, null, null, null, null),
+            new ShipFilter(null, null, ShipType.TRANSPORT, null, 32976972000000L, null, null, 0.7, null, null, null, null),
+            new ShipFilter(null, null, null, null, null, false, 0.3, 0.6, null, null, null, null),
+            new ShipFilter("ra", "ur", null, 32503669200000L, 32850824400000L, null, null, null, 1000, 4000, 1., 6.)
+    };
+
+    @Autowired
+    private ShipRepository shipRepository;
+
+    @Test
+    public void predicateSelectsSameShipsAsSpecification() {
+        List<Ship> all = shipRepository.findAll();
+        for (ShipFilter filter : FILTERS) {
+            List<Long> expected = shipRepository.findAll(ShipSpecifications.byFilter(filter), ShipSpecifications.byOrder(null))
+                    .stream().map(Ship::getId).collect(Collectors.toList());
+            List<Long> actual = all.stream().filter(filter.toPredicate()).map(Ship::getId).sorted().collect(Collectors.toList());
+            assertEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.space.repository;
+
+import com.space.config.AppConfig;
+import com.space.model.Ship;
+import org.hibernate.Session;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ActiveProfiles("dev")
+@ContextConfiguration(classes = AppConfig.class)
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ShipProjectionTest {
+
+    private static final ShipFilter NO_FILTER =
+            new ShipFilter(null, null, null, null, null, null, null, null, null, null, null, null);
+
+    @Autowired
+    private ShipRepository shipRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void projectionsMatchEntitiesWithoutEnteringThePersistenceContext() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.execute(status -> {
+            List<Ship> page = shipRepository.findPage(ShipSpecifications.byFilter(NO_FILTER),
+                    PageRequest.of(0, 100, ShipSpecifications.byOrder(null)));
+            List<Ship> streamed;
+            try (Stream<Ship> stream = shipRepository.stream(ShipSpecifications.byFilter(NO_FILTER), ShipSpecifications.byOrder(null))) {
+                streamed = stream.collect(Collectors.toList());
+            }
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+
+            List<String> entities = shipRepository.findAll(ShipSpecifications.byOrder(null)).stream()
+                    .map(Ship::toString).collect(Collectors.toList());
+            assertEquals(40, entities.size());
+            assertEquals(entities, page.stream().map(Ship::toString).collect(Collectors.toList()));
+            assertEquals(entities, streamed.stream().map(Ship::toString).collect(Collectors.toList()));
+            return null;
+        });
+    }
+
+    @Test
+    public void changedProjectionsAreNotWrittenBack() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            shipRepository.findPage(ShipSpecifications.byFilter(NO_FILTER), PageRequest.of(0, 1, ShipSpecifications.byOrder(null)))
+                    .get(0).setName("Changed");
+            return null;
+        });
+        assertEquals("Orion III", shipRepository.findById(1L).get().getName());
+    }
+}
@@ -0,0 +1,138 @@
+package com.space.repository;
+
+import com.space.config.AppConfig;
+import com.space.model.Ship;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ActiveProfiles("dev")
+@ContextConfiguration(classes = {AppConfig.class, ShipRatingUpdateTest.NoInfoBatches.class})
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ShipRatingUpdateTest {
+
+    @Autowired
+    private ShipRepository shipRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @After
+    public void tearDown() {
+        NoInfoBatches.enabled = false;
+    }
+
+    @Test
+    public void rejectedRowsAreNotReportedAndWrittenRowsAreCurrent() {
+        checkUpdateRatings();
+    }
+
+    @Test
+    public void rejectedRowsAreNotReportedWhenTheBatchHasNoRowCounts() {
+        NoInfoBatches.enabled = true;
+        checkUpdateRatings();
+    }
+
+    private void checkUpdateRatings() {
+        Ship first = shipRepository.findById(1L).get();
+        Ship second = shipRepository.findById(2L).get();
+        first.setRating(9.99);
+        second.setRating(8.88);
+        // a DATE read back through a server time zone other than the JVM's is not at local midnight
+        second.setProdDate(new Date(second.getProdDate().getTime() + TimeUnit.HOURS.toMillis(13)));
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // the rating of ship 1 no longer follows from its speed; ship 2 only got a new name
+        jdbcTemplate.update("update ship set speed = 0.5 where id = 1");
+        jdbcTemplate.update("update ship set name = 'Renamed' where id = 2");
+
+        List<Ship> written = shipRepository.updateRatings(Arrays.asList(first, second));
+
+        assertEquals(1, written.size());
+        assertEquals(Long.valueOf(2), written.get(0).getId());
+        assertEquals("Renamed", written.get(0).getName());
+        assertEquals(Double.valueOf(8.88), written.get(0).getRating());
+        assertEquals(Double.valueOf(1.31), jdbcTemplate.queryForObject("select rating from ship where id = 1", Double.class));
+        assertEquals(Double.valueOf(8.88), jdbcTemplate.queryForObject("select rating from ship where id = 2", Double.class));
+    }
+
+    /**
+     * Makes {@link Statement#executeBatch()} answer {@link Statement#SUCCESS_NO_INFO} for every entry while
+     * {@link #enabled}, as MySQL does for a batch rewritten into one multi-row statement.
+     */
+    public static class NoInfoBatches implements BeanPostProcessor {
+
+        static volatile boolean enabled;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource) {
+                return proxy(bean, (target, method, args) -> {
+                    Object result = method.invoke(target, args);
+                    return result instanceof Connection ? connection((Connection) result) : result;
+                });
+            }
+            return bean;
+        }
+
+        private static Connection connection(Connection connection) {
+            return (Connection) proxy(connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof PreparedStatement ? statement((PreparedStatement) result) : result;
+            });
+        }
+
+        private static PreparedStatement statement(PreparedStatement statement) {
+            return (PreparedStatement) proxy(statement, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (enabled && method.getName().equals("executeBatch")) {
+                    Arrays.fill((int[]) result, Statement.SUCCESS_NO_INFO);
+                }
+                return result;
+            });
+        }
+
+        private interface Invocation {
+            Object invoke(Object target, Method method, Object[] args) throws Exception;
+        }
+
+        private static Object proxy(Object target, Invocation invocation) {
+            Class<?>[] interfaces = ClassUtils.getAllInterfaces(target);
+            return Proxy.newProxyInstance(NoInfoBatches.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+                if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                    return proxy == args[0];
+                } else if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                try {
+                    return invocation.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+        }
+    }
+}
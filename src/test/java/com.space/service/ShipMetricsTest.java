@@ -0,0 +1,59 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.repository.ShipFilter;
+import org.junit.Assume;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+
+public class ShipMetricsTest {
+
+    @Test
+    public void recordingAllocatesNothing() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+
+        ShipMetrics metrics = new ShipMetrics();
+        ShipFilter filter = new ShipFilter("a", null, null, null, null, true, null, null, null, null, null, null);
+        String path = "/rest/ships/{id}";
+        // creates the series and compiles the recording path
+        for (int i = 0; i < 20000; i++) {
+            record(metrics, filter, path, i);
+        }
+        long before = allocations.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100000; i++) {
+            record(metrics, filter, path, i);
+        }
+        long allocated = allocations.getThreadAllocatedBytes(thread) - before;
+
+        // a single boxed value per call would be well over a megabyte
+        assertTrue(allocated + " bytes allocated", allocated < 10000);
+    }
+
+    @Test
+    public void outputNamesTheSeries() throws Exception {
+        ShipMetrics metrics = new ShipMetrics();
+        metrics.recordRequest(HttpMethod.GET, "/rest/ships", 200, 3_000_000);
+        metrics.recordQuery(ShipMetrics.Query.COUNT, null,
+                new ShipFilter(null, null, null, null, null, null, null, null, null, null, null, null), 2_000_000, true);
+        StringWriter out = new StringWriter();
+        metrics.writePrometheus(out);
+        String text = out.toString();
+
+        assertTrue(text, text.contains("cosmoport_http_requests_total{method=\"GET\",path=\"/rest/ships\",status=\"2xx\"} 1\n"));
+        assertTrue(text, text.contains("cosmoport_http_request_duration_seconds_bucket{method=\"GET\",path=\"/rest/ships\",le=\"0.005\"} 1\n"));
+        assertTrue(text, text.contains("cosmoport_ship_query_errors_total{query=\"count\",order=\"none\",filter=\"none\"} 1\n"));
+    }
+
+    private static void record(ShipMetrics metrics, ShipFilter filter, String path, int i) {
+        metrics.recordRequest(HttpMethod.GET, path, i % 10 == 0 ? 404 : 200, i * 1000L);
+        metrics.recordQuery(ShipMetrics.Query.LIST, ShipOrder.SPEED, filter, i * 500L, false);
+    }
+}
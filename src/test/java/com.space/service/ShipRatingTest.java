@@ -0,0 +1,129 @@
+package com.space.service;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link ShipRating} with the java.time, Calendar and BigDecimal code it replaced.
+ */
+public class ShipRatingTest {
+
+    private static final String[] ZONES = {"UTC", "Europe/Moscow", "America/New_York", "Asia/Kathmandu", "Pacific/Chatham"};
+
+    private final TimeZone defaultZone = TimeZone.getDefault();
+
+    @After
+    public void restoreZone() {
+        TimeZone.setDefault(defaultZone);
+        ShipRating.useZone(defaultZone.toZoneId());
+    }
+
+    @Test
+    public void ratingMatchesOverValidDomain() {
+        for (int year = 2800; year <= ShipRules.CURRENT_YEAR; year++) {
+            for (int hundredths = 1; hundredths <= 99; hundredths++) {
+                double speed = hundredths / 100d;
+                for (boolean used : new boolean[]{false, true}) {
+                    assertEquals(speed + " " + year + " " + used,
+                            Double.doubleToLongBits(legacyRating(speed, used, year)),
+                            Double.doubleToLongBits(ShipRating.rating(speed, used, year, ShipRules.CURRENT_YEAR)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void roundingMatchesAtEveryMidpoint() {
+        // the doubles at and around each x.xx5 are where HALF_UP could go either way
+        for (long a = 0; a < 1_000_000; a++) {
+            double midpoint = (a * 10 + 5) / 1000.0;
+            assertRounding(midpoint);
+            assertRounding(Math.nextUp(midpoint));
+            assertRounding(Math.nextDown(midpoint));
+            assertRounding(-midpoint);
+            assertRounding(a / 100.0);
+            assertRounding(Math.nextDown(a / 100.0));
+        }
+    }
+
+    @Test
+    public void roundingMatchesForRandomDoubles() {
+        Random random = new Random(17);
+        for (int i = 0; i < 300_000; i++) {
+            assertRounding(random.nextDouble());
+            assertRounding(random.nextDouble() * 100);
+            assertRounding((random.nextDouble() - 0.5) * 2e9);
+            double bits = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(bits)) {
+                assertRounding(bits);
+            }
+        }
+        assertRounding(0d);
+        assertRounding(-0d);
+        assertRounding(Double.MAX_VALUE);
+        assertRounding(Double.MIN_VALUE);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void roundingRejectsNaNLikeBigDecimal() {
+        ShipRating.roundToHundreds(Double.NaN);
+    }
+
+    @Test
+    public void yearMatchesInEveryZone() {
+        Random random = new Random(5);
+        long first = LocalDate.of(2799, 12, 25).atStartOfDay(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        long last = LocalDate.of(3020, 1, 5).atStartOfDay(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        for (String id : ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(id));
+            ShipRating.useZone(ZoneId.of(id));
+            for (int year = 2800; year <= 3020; year++) {
+                long start = LocalDate.of(year, 1, 1).atStartOfDay(ZoneId.of(id)).toInstant().toEpochMilli();
+                for (long millis : new long[]{start - 1, start, start + 1, start + 86_400_000L * 180}) {
+                    assertYear(id, millis);
+                }
+            }
+            for (int i = 0; i < 50_000; i++) {
+                assertYear(id, first + (long) (random.nextDouble() * (last - first)));
+                assertYear(id, random.nextLong() % 40_000_000_000_000L);
+            }
+        }
+    }
+
+    private static void assertRounding(double n) {
+        assertEquals(String.valueOf(n), Double.doubleToLongBits(legacyRound(n)), Double.doubleToLongBits(ShipRating.roundToHundreds(n)));
+    }
+
+    private static void assertYear(String zone, long millis) {
+        Date date = new Date(millis);
+        assertEquals(zone + " " + millis, date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear(), ShipRating.year(millis));
+        if (millis >= 0) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime(date);
+            assertEquals(zone + " " + millis, calendar.get(Calendar.YEAR), ShipRating.year(millis));
+        }
+    }
+
+    private static double legacyRating(double speed, boolean used, int productionYear) {
+        double coefficientUsed = used ? 0.5d : 1.0d;
+        double rating = (80 * speed * coefficientUsed) / (double) (3019 - productionYear + 1);
+        return legacyRound(rating);
+    }
+
+    private static double legacyRound(double n) {
+        BigDecimal instance = new BigDecimal(Double.toString(n));
+        instance = instance.setScale(2, RoundingMode.HALF_UP);
+        return instance.doubleValue();
+    }
+}
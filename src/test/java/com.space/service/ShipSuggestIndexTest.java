@@ -0,0 +1,123 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipSuggestion;
+import com.space.repository.ShipRepository;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShipSuggestIndexTest {
+
+    @Test
+    public void rankedPrefixesFollowChanges() {
+        Random random = new Random(11);
+        List<Ship> ships = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            Ship ship = ship(id, randomName(random));
+            ships.add(ship);
+            rows.add(new Object[]{id, ship.getName(), ship.getPlanet()});
+        }
+        ShipSuggestIndex index = new ShipSuggestIndex();
+        ReflectionTestUtils.setField(index, "shipRepository", Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ShipRepository.class}, (proxy, method, args) -> rows));
+
+        String[] prefixes = {"", "S", "Sh", "Shi", "Ship 1", "Ship 12", "X"};
+        for (int step = 0; step < 3000; step++) {
+            if (step % 50 == 0) {
+                for (String prefix : prefixes) {
+                    assertEquals("prefix '" + prefix + "' at step " + step, expected(ships, prefix),
+                            values(index.suggest(ShipSuggestIndex.NAME, prefix, ShipSuggestIndex.MAX_LIMIT)));
+                }
+            }
+            int i = random.nextInt(ships.size());
+            Ship before = ships.get(i);
+            Ship after = random.nextInt(10) == 0 ? null : ship(before.getId(), randomName(random));
+            if (after == null) {
+                ships.remove(i);
+            } else {
+                ships.set(i, after);
+            }
+            index.shipChanged(before, after);
+        }
+    }
+
+    @Test
+    public void writesNotifiedDuringTheLoadAreCountedOnce() throws Exception {
+        List<Ship> ships = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            ships.add(ship(id, "Ship " + id % 3));
+        }
+        Ship created = ship(11, "Ship 1");
+        Ship deleted = ships.remove(0);
+        Ship renamed = ships.set(0, ship(2, "Ship 0"));
+        ships.add(created);
+        List<Object[]> rows = ships.stream().map(ship -> new Object[]{ship.getId(), ship.getName(), ship.getPlanet()})
+                .collect(Collectors.toList());
+
+        ShipSuggestIndex index = new ShipSuggestIndex();
+        List<Thread> notifications = new ArrayList<>();
+        ReflectionTestUtils.setField(index, "shipRepository", Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ShipRepository.class}, (proxy, method, args) -> {
+                    // committed before the rows were read, notified while the index is loading them
+                    Thread thread = new Thread(() -> {
+                        index.shipChanged(null, created);
+                        index.shipChanged(deleted, null);
+                        index.shipChanged(renamed, ships.get(0));
+                    });
+                    thread.start();
+                    notifications.add(thread);
+                    return rows;
+                }));
+
+        index.suggest(ShipSuggestIndex.NAME, "", ShipSuggestIndex.MAX_LIMIT);
+        for (Thread thread : notifications) {
+            thread.join();
+        }
+        assertEquals(expected(ships, ""), values(index.suggest(ShipSuggestIndex.NAME, "", ShipSuggestIndex.MAX_LIMIT)));
+        assertEquals(Collections.singletonList("Mars=" + ships.size()),
+                values(index.suggest(ShipSuggestIndex.PLANET, "", ShipSuggestIndex.MAX_LIMIT)));
+    }
+
+    private static List<String> expected(List<Ship> ships, String prefix) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Ship ship : ships) {
+            if (ship.getName().startsWith(prefix)) {
+                counts.merge(ship.getName(), 1, Integer::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(ShipSuggestIndex.MAX_LIMIT)
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> values(List<ShipSuggestion> suggestions) {
+        return suggestions.stream().map(s -> s.getValue() + "=" + s.getCount()).collect(Collectors.toList());
+    }
+
+    private static String randomName(Random random) {
+        // skewed, so the top of a prefix changes as ships are renamed
+        return "Ship " + (int) Math.sqrt(random.nextInt(250 * 250));
+    }
+
+    private static Ship ship(long id, String name) {
+        Ship ship = new Ship();
+        ship.setId(id);
+        ship.setName(name);
+        ship.setPlanet("Mars");
+        return ship;
+    }
+}
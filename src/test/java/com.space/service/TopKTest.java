@@ -0,0 +1,25 @@
+package com.space.service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class TopKTest {
+
+    @Test
+    public void smallestReturnsAscendingPrefix() {
+        List<Integer> values = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            values.add(random.nextInt(100));
+        }
+        List<Integer> expected = values.stream().sorted().limit(25).collect(Collectors.toList());
+        assertEquals(expected, TopK.smallest(values, Comparator.naturalOrder(), 25));
+    }
+}